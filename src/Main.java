@@ -4,6 +4,7 @@ import java.util.*;
 
 public class Main {
     private static Scanner scanner = new Scanner(System.in);
+    private static final int PRODUCT_PAGE_SIZE = 20;
     private static ECommerceSystem system = new ECommerceSystem();
 
     public static void main(String[] args) {
@@ -69,6 +70,12 @@ public class Main {
             System.out.println("5. Hapus Produk");
             System.out.println("6. Tampilkan Semua Produk (Terurut by ID)");
             System.out.println("7. Tampilkan Produk Termahal/Termurah");
+            System.out.println("8. Cari Produk by Kategori & Range Harga");
+            System.out.println("9. Ringkasan per Kategori");
+            System.out.println("10. Cari Produk by Nama");
+            System.out.println("11. Saran Nama Produk (Autocomplete)");
+            System.out.println("12. Ekspor Katalog ke File (B+Tree)");
+            System.out.println("13. Cari Produk Termurah ke-k dalam Range Harga");
             System.out.println("0. Kembali");
 
             int choice = getIntInput("\nPilih: ");
@@ -91,11 +98,29 @@ public class Main {
                     deleteProduct();
                     break;
                 case 6:
-                    system.displayAllProducts();
+                    displayProductPages();
                     break;
                 case 7:
                     system.displayPriceExtremes();
                     break;
+                case 8:
+                    searchProductByCategory();
+                    break;
+                case 9:
+                    system.displayCategoryFacets();
+                    break;
+                case 10:
+                    searchProductByName();
+                    break;
+                case 11:
+                    autocompleteProductName();
+                    break;
+                case 12:
+                    exportCatalog();
+                    break;
+                case 13:
+                    findKthCheapest();
+                    break;
                 case 0:
                     return;
             }
@@ -113,6 +138,9 @@ public class Main {
             System.out.println("4. Tampilkan Semua Pesanan");
             System.out.println("5. Tampilkan Pesanan by Status");
             System.out.println("6. Batalkan Pesanan");
+            System.out.println("7. Tampilkan Pesanan by Customer");
+            System.out.println("8. Tampilkan Pesanan by Produk");
+            System.out.println("9. Tampilkan Pesanan Terbaru (by Waktu)");
             System.out.println("0. Kembali");
 
             int choice = getIntInput("\nPilih: ");
@@ -137,6 +165,15 @@ public class Main {
                 case 6:
                     cancelOrder();
                     break;
+                case 7:
+                    displayOrdersByCustomer();
+                    break;
+                case 8:
+                    displayOrdersByProduct();
+                    break;
+                case 9:
+                    displayRecentOrders();
+                    break;
                 case 0:
                     return;
             }
@@ -193,13 +230,20 @@ public class Main {
         System.out.println("ARSITEKTUR SISTEM & ANALISIS KOMPLEKSITAS");
         System.out.println("═".repeat(75));
 
-        System.out.println("\n┌─ 1. BINARY SEARCH TREE (BST) - models.Product Management");
+        System.out.println("\n┌─ 1. BINARY SEARCH TREE (BST, AVL) - models.Product Management");
         System.out.println("│  Use Case: Manajemen katalog produk dengan pencarian efisien");
         System.out.println("│");
-        System.out.println("│  ├─ Insert models.Product: O(log n) average, O(n) worst");
-        System.out.println("│  ├─ Search by ID: O(log n) average, O(n) worst");
+        System.out.println("│  ├─ Insert models.Product: O(log n) worst (AVL rotations)");
+        System.out.println("│  ├─ Search by ID: O(log n) worst, array Eytzinger + delta (cache-friendly)");
         System.out.println("│  ├─ Range Search: O(log n + k) - k = hasil dalam range");
-        System.out.println("│  ├─ Delete models.Product: O(log n) average");
+        System.out.println("│  ├─ Termurah ke-k, Median, Persentil: O(log n) - ukuran subtree");
+        System.out.println("│  ├─ Bulk Load: O(n) dari input terurut, tree seimbang sempurna");
+        System.out.println("│  ├─ Kategori + Range Harga: O(log n + k), facet per kategori O(1)");
+        System.out.println("│  ├─ Autocomplete Nama: O(p + k) - radix trie, p = panjang awalan");
+        System.out.println("│  ├─ Cari Nama (typo): trigram + edit distance, top-k by skor");
+        System.out.println("│  ├─ Katalog Disk: B+Tree di file mmap, halaman 4 KB, O(log_B n)");
+        System.out.println("│  ├─ Katalog Persisten: path copying O(log n), snapshot tanpa lock");
+        System.out.println("│  ├─ Delete models.Product: O(log n) worst");
         System.out.println("│  ├─ In-models.Order Traversal: O(n)");
         System.out.println("│  └─ Space: O(n)");
         System.out.println("│");
@@ -215,8 +259,8 @@ public class Main {
         System.out.println("│  ├─ Cancel models.Order: O(1) average");
         System.out.println("│  └─ Space: O(n)");
         System.out.println("│");
-        System.out.println("│  Implementation: Separate Chaining, Dynamic Resizing");
-        System.out.println("│  Load Factor: 0.75 (trigger resize)");
+        System.out.println("│  Implementation: Separate Chaining, Incremental Resizing");
+        System.out.println("│  Load Factor: 0.75 (grow), 0.2 (shrink)");
         System.out.println("│  Real Application: models.Order tracking, payment processing");
 
         System.out.println("\n└─ 3. GRAPH + DIJKSTRA - Shipping Optimization");
@@ -227,10 +271,12 @@ public class Main {
         System.out.println("   ├─ Dijkstra's Algorithm: O((V + E) log V)");
         System.out.println("   │  • V = jumlah kota/hub");
         System.out.println("   │  • E = jumlah rute");
+        System.out.println("   ├─ Kompilasi CSR: O(V + E), hanya saat kota/rute baru ditambahkan");
+        System.out.println("   ├─ Cache Rute per Asal: LRU 64 asal, hit O(1), hanya tree terdampak yang dibuang");
         System.out.println("   └─ Space: O(V + E)");
         System.out.println("");
-        System.out.println("   Data Structure: Adjacency List");
-        System.out.println("   Optimization: Priority Queue (Min Heap)");
+        System.out.println("   Data Structure: Adjacency List + CSR (int[] offsets/targets/weights)");
+        System.out.println("   Optimization: Indexed 4-ary Heap (decrease-key, tanpa alokasi per query)");
         System.out.println("   Real Application: Logistics, delivery optimization");
 
         System.out.println("\n" + "═".repeat(75));
@@ -268,6 +314,47 @@ public class Main {
         system.searchProductsInRange(minPrice, maxPrice);
     }
 
+    private static void searchProductByCategory() {
+        String category = getStringInput("Kategori: ");
+        double minPrice = getDoubleInput("Harga Minimum: Rp ");
+        double maxPrice = getDoubleInput("Harga Maksimum: Rp ");
+        system.searchProductsByCategory(category, minPrice, maxPrice);
+    }
+
+    private static void searchProductByName() {
+        String query = getStringInput("Nama Produk: ");
+        system.searchProductsByName(query);
+    }
+
+    private static void autocompleteProductName() {
+        String prefix = getStringInput("Awalan Nama: ");
+        system.autocompleteProductName(prefix);
+    }
+
+    private static void displayProductPages() {
+        String afterId = null;
+        while (true) {
+            afterId = system.displayProductPage(afterId, PRODUCT_PAGE_SIZE);
+            if (afterId == null)
+                return;
+            String next = getStringInput("Enter = halaman berikutnya, 0 = kembali: ");
+            if (next.equals("0"))
+                return;
+        }
+    }
+
+    private static void findKthCheapest() {
+        double minPrice = getDoubleInput("Harga Minimum: Rp ");
+        double maxPrice = getDoubleInput("Harga Maksimum: Rp ");
+        int k = getIntInput("Peringkat (1 = termurah): ");
+        system.findKthCheapest(minPrice, maxPrice, k);
+    }
+
+    private static void exportCatalog() {
+        String path = getStringInput("Nama File (katalog.db): ");
+        system.exportCatalog(path.isEmpty() ? "katalog.db" : path);
+    }
+
     private static void updateStock() {
         String id = getStringInput("ID Produk: ");
         int newStock = getIntInput("Stok Baru: ");
@@ -344,6 +431,25 @@ public class Main {
         system.cancelOrder(orderId);
     }
 
+    private static void displayOrdersByCustomer() {
+        String customerName = getStringInput("Nama Customer: ");
+        system.displayOrdersByCustomer(customerName);
+    }
+
+    private static void displayOrdersByProduct() {
+        String productId = getStringInput("ID Produk: ");
+        system.displayOrdersByProduct(productId);
+    }
+
+    private static void displayRecentOrders() {
+        int hours = getIntInput("Rentang waktu (jam terakhir): ");
+        while (hours <= 0) {
+            System.out.println("Rentang waktu harus lebih dari 0 jam!");
+            hours = getIntInput("Rentang waktu (jam terakhir): ");
+        }
+        system.displayRecentOrders(hours);
+    }
+
     private static void addCity() {
         String cityName = getStringInput("Nama Kota/Hub: ");
         system.addCity(cityName);
@@ -0,0 +1,121 @@
+package bench;
+
+import datastructure.hash.ConcurrentOrderHashTable;
+import datastructure.hash.OrderHashTable;
+import datastructure.hash.OrderStore;
+import models.Order;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of a 90/10 get/put mix from 1 to 32 threads on
+ * ConcurrentOrderHashTable, against OrderHashTable behind one global lock.
+ * Usage: java -Xmx2g bench.ConcurrentScalingBenchmark [orders], default 1000000
+ */
+public class ConcurrentScalingBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+    private static final long DURATION_MS = 2000;
+    private static final int PUT_PERCENT = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+
+        String[] keys = new String[n];
+        Order[] orders = new Order[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = "ORD" + (1000 + i);
+            orders[i] = new Order(keys[i], "Customer" + (i % 1000), "P" + (i % 100), 1, 1000, "Jakarta");
+        }
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-28s %8s %14s %10s%n", "TABLE", "THREADS", "OPS/S", "SPEEDUP");
+        run("ConcurrentOrderHashTable", ConcurrentOrderHashTable::new, keys, orders);
+        run("OrderHashTable + lock", LockedOrderStore::new, keys, orders);
+    }
+
+    private static void run(String name, Supplier<OrderStore> factory, String[] keys, Order[] orders)
+            throws InterruptedException {
+        OrderStore store = factory.get();
+        for (int i = 0; i < keys.length; i++) {
+            store.put(keys[i], orders[i]);
+        }
+
+        /**
+         * Untimed passes warm up the JIT before the measured runs
+         */
+        for (int i = 0; i < 3; i++) {
+            measure(store, 1, keys, orders);
+        }
+
+        double single = 0;
+        for (int threads : THREADS) {
+            double throughput = measure(store, threads, keys, orders);
+            if (threads == 1) {
+                single = throughput;
+            }
+            System.out.printf("%-28s %8d %14.0f %9.2fx%n", name, threads, throughput, throughput / single);
+        }
+    }
+
+    private static double measure(OrderStore store, int threads, String[] keys, Order[] orders)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] deadline = new long[1];
+
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    /**
+                     * Check the clock once per batch so it does not dominate
+                     */
+                    for (int i = 0; i < 256; i++) {
+                        int index = random.nextInt(keys.length);
+                        if (random.nextInt(100) < PUT_PERCENT) {
+                            store.put(keys[index], orders[index]);
+                        } else if (store.get(keys[index]) == null) {
+                            throw new IllegalStateException("Hasil benchmark tidak valid");
+                        }
+                    }
+                    done += 256;
+                }
+                operations.add(done);
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        deadline[0] = begin + DURATION_MS * 1_000_000;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    /**
+     * The unsynchronized table made safe the simple way, with one lock for everything
+     */
+    private static final class LockedOrderStore extends OrderHashTable {
+        @Override
+        public synchronized void put(String key, Order value) {
+            super.put(key, value);
+        }
+
+        @Override
+        public synchronized Order get(String key) {
+            return super.get(key);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package bench;
+
+import datastructure.hash.OrderHashTable;
+import datastructure.hash.OrderOpenHashTable;
+import datastructure.hash.OrderStore;
+import models.Order;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compare the chained OrderHashTable with the open-addressing OrderOpenHashTable
+ * on put, get (hit and miss) and remove, with "ORD" + number keys.
+ * Usage: java -Xmx4g bench.OrderStoreBenchmark [orders...], default 1000000 10000000
+ */
+public class OrderStoreBenchmark {
+    private static final int ROUNDS = 3;
+    private static final int MISS_SAMPLE = 1_000_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{1_000_000, 10_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        for (int n : sizes) {
+            /**
+             * Orders and keys are built once and shared by both tables,
+             * so only the table itself is measured
+             */
+            String[] keys = new String[n];
+            Order[] orders = new Order[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = "ORD" + (1000 + i);
+                orders[i] = new Order(keys[i], "Customer", "P001", 1, 1000, "Jakarta");
+            }
+            int[] lookups = new int[n];
+            String[] misses = new String[Math.min(n, MISS_SAMPLE)];
+            Random random = new Random(42);
+            for (int i = 0; i < n; i++) {
+                lookups[i] = random.nextInt(n);
+            }
+            for (int i = 0; i < misses.length; i++) {
+                misses[i] = "ORD" + (1000 + n + random.nextInt(n));
+            }
+
+            System.out.println("\n" + n + " orders");
+            System.out.printf("%-22s %10s %10s %10s %10s %12s%n",
+                    "TABLE", "PUT ns", "GET ns", "MISS ns", "REMOVE ns", "HEAP B/ORD");
+            run("OrderHashTable", OrderHashTable::new, keys, orders, lookups, misses);
+            run("OrderOpenHashTable", OrderOpenHashTable::new, keys, orders, lookups, misses);
+        }
+    }
+
+    private static void run(String name, Supplier<OrderStore> factory, String[] keys, Order[] orders,
+                            int[] lookups, String[] misses) {
+        int n = keys.length;
+        double put = Double.MAX_VALUE, get = Double.MAX_VALUE, miss = Double.MAX_VALUE, remove = Double.MAX_VALUE;
+        long footprint = 0;
+
+        /**
+         * Best of a few rounds, the first round also warms up the JIT
+         */
+        for (int round = 0; round < ROUNDS; round++) {
+            long base = usedHeap();
+            OrderStore store = factory.get();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                store.put(keys[i], orders[i]);
+            }
+            put = Math.min(put, (System.nanoTime() - start) / (double) n);
+            footprint = Math.max(footprint, usedHeap() - base);
+
+            int found = 0;
+            start = System.nanoTime();
+            for (int i : lookups) {
+                if (store.get(keys[i]) != null)
+                    found++;
+            }
+            get = Math.min(get, (System.nanoTime() - start) / (double) n);
+
+            start = System.nanoTime();
+            for (String key : misses) {
+                if (store.get(key) != null)
+                    found++;
+            }
+            miss = Math.min(miss, (System.nanoTime() - start) / (double) misses.length);
+
+            start = System.nanoTime();
+            for (String key : keys) {
+                store.remove(key);
+            }
+            remove = Math.min(remove, (System.nanoTime() - start) / (double) n);
+
+            if (found != n || store.getSize() != 0) {
+                throw new IllegalStateException("Hasil benchmark tidak valid");
+            }
+            store = null;
+        }
+
+        System.out.printf("%-22s %10.1f %10.1f %10.1f %10.1f %12.1f%n",
+                name, put, get, miss, remove, footprint / (double) n);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
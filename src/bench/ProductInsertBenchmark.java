@@ -0,0 +1,63 @@
+package bench;
+
+import datastructure.tree.ProductBST;
+import models.Product;
+
+/**
+ * Insert products with sequential IDs, the order in which products.csv
+ * delivers them, then search every ID back.
+ * Usage: java -Xmx3g bench.ProductInsertBenchmark [products...], default 1000 10000 100000 1000000
+ */
+public class ProductInsertBenchmark {
+    /**
+     * Larger sizes are skipped once one size takes longer than this
+     */
+    private static final long TIME_LIMIT_MS = 60_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{1_000, 10_000, 100_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-10s %14s %14s %14s%n", "PRODUCTS", "INSERT ns/op", "SEARCH ns/op", "TOTAL ms");
+        for (int n : sizes) {
+            Product[] products = new Product[n];
+            for (int i = 0; i < n; i++) {
+                products[i] = new Product(String.format("P%07d", i + 1), "Produk " + (i + 1),
+                        "Kategori" + (i % 10), 1000 + (i % 5000), 10);
+            }
+
+            long begin = System.nanoTime();
+            try {
+                ProductBST tree = new ProductBST();
+                long start = System.nanoTime();
+                for (Product product : products) {
+                    tree.insert(product);
+                }
+                double insert = (System.nanoTime() - start) / (double) n;
+
+                start = System.nanoTime();
+                for (Product product : products) {
+                    if (tree.search(product.getId()) != product) {
+                        throw new IllegalStateException("Hasil benchmark tidak valid");
+                    }
+                }
+                double search = (System.nanoTime() - start) / (double) n;
+
+                if (tree.getSize() != n) {
+                    throw new IllegalStateException("Hasil benchmark tidak valid");
+                }
+                System.out.printf("%-10d %14.1f %14.1f %14.1f%n", n, insert, search, (System.nanoTime() - begin) / 1e6);
+            } catch (StackOverflowError e) {
+                System.out.printf("%-10d %14s%n", n, "StackOverflowError");
+                break;
+            }
+
+            if ((System.nanoTime() - begin) / 1_000_000 > TIME_LIMIT_MS) {
+                System.out.println("Batas waktu terlampaui, ukuran berikutnya dilewati");
+                break;
+            }
+        }
+    }
+}
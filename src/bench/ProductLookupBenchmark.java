@@ -0,0 +1,133 @@
+package bench;
+
+import datastructure.tree.ProductBST;
+import models.Product;
+
+import java.util.Random;
+
+/**
+ * Random ID lookups on ProductBST.search, served by the Eytzinger ID index,
+ * against the node-by-node tree walk it replaced. Products are inserted in
+ * shuffled ID order, so tree nodes sit wherever the allocator put them.
+ * Usage: java -Xmx3g bench.ProductLookupBenchmark [products...], default 10000 100000 1000000
+ */
+public class ProductLookupBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{10_000, 100_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-10s %16s %16s %10s%n", "PRODUCTS", "TREE WALK ns/op", "ProductBST ns/op", "SPEEDUP");
+        for (int n : sizes) {
+            Product[] sorted = new Product[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = new Product(String.format("P%07d", i + 1), "Produk " + (i + 1),
+                        "Kategori" + (i % 10), 1000 + (i % 5000), 10);
+            }
+            Random random = new Random(42);
+            Product[] shuffled = sorted.clone();
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Product swap = shuffled[i];
+                shuffled[i] = shuffled[j];
+                shuffled[j] = swap;
+            }
+
+            ProductBST tree = new ProductBST();
+            for (Product product : shuffled) {
+                tree.insert(product);
+            }
+            TreeWalk walk = new TreeWalk(shuffled);
+
+            /**
+             * Lookup keys are separate String objects, as they are when
+             * an ID comes from user input
+             */
+            String[] ids = new String[n];
+            Product[] expected = new Product[n];
+            for (int i = 0; i < n; i++) {
+                int index = random.nextInt(n);
+                ids[i] = new String(sorted[index].getId());
+                expected[i] = sorted[index];
+            }
+
+            /**
+             * Alternate the two so both see the same JIT and GC state,
+             * and keep the best round of each
+             */
+            double walkTime = Double.MAX_VALUE, searchTime = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    if (walk.search(ids[i]) != expected[i]) {
+                        throw new IllegalStateException("Hasil benchmark tidak valid");
+                    }
+                }
+                walkTime = Math.min(walkTime, (System.nanoTime() - start) / (double) n);
+
+                start = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    if (tree.search(ids[i]) != expected[i]) {
+                        throw new IllegalStateException("Hasil benchmark tidak valid");
+                    }
+                }
+                searchTime = Math.min(searchTime, (System.nanoTime() - start) / (double) n);
+            }
+            System.out.printf("%-10d %16.1f %16.1f %9.1fx%n", n, walkTime, searchTime, walkTime / searchTime);
+        }
+    }
+
+    /**
+     * The lookup ProductBST.search did before the ID index: compare the ID
+     * with node.product.getId() at every level and follow left or right.
+     * The tree has the balanced shape of the AVL tree, and its nodes are
+     * allocated in insertion order, as the AVL tree allocated them.
+     */
+    private static final class TreeWalk {
+        private final Node root;
+
+        /**
+         * @param insertionOrder products with IDs P0000001 up to Pn, in any order
+         */
+        TreeWalk(Product[] insertionOrder) {
+            Node[] nodes = new Node[insertionOrder.length];
+            for (Product product : insertionOrder) {
+                nodes[Integer.parseInt(product.getId().substring(1)) - 1] = new Node(product);
+            }
+            root = link(nodes, 0, nodes.length - 1);
+        }
+
+        private static Node link(Node[] nodes, int low, int high) {
+            if (low > high)
+                return null;
+            int mid = (low + high) >>> 1;
+            nodes[mid].left = link(nodes, low, mid - 1);
+            nodes[mid].right = link(nodes, mid + 1, high);
+            return nodes[mid];
+        }
+
+        Product search(String id) {
+            Node node = root;
+            while (node != null) {
+                int cmp = id.compareTo(node.product.getId());
+                if (cmp == 0)
+                    return node.product;
+                node = cmp < 0 ? node.left : node.right;
+            }
+            return null;
+        }
+    }
+
+    private static final class Node {
+        final Product product;
+        Node left;
+        Node right;
+
+        Node(Product product) {
+            this.product = product;
+        }
+    }
+}
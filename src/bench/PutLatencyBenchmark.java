@@ -0,0 +1,60 @@
+package bench;
+
+import datastructure.hash.OrderHashTable;
+import models.Order;
+
+import java.util.Arrays;
+
+/**
+ * Latency distribution of single OrderHashTable puts while the table grows
+ * from its initial capacity, so every resize falls inside the measurement.
+ * Usage: java -Xmx2g bench.PutLatencyBenchmark [orders], default 1000000
+ */
+public class PutLatencyBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+
+        String[] keys = new String[n];
+        Order[] orders = new Order[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = "ORD" + (1000 + i);
+            orders[i] = new Order(keys[i], "Customer", "P001", 1, 1000, "Jakarta");
+        }
+
+        long[] latencies = new long[n];
+        System.out.printf("%-8s %10s %10s %10s %10s %12s%n",
+                "ROUND", "p50 ns", "p99 ns", "p99.9 ns", "max ns", "total ms");
+
+        /**
+         * The first rounds warm up the JIT, every round is printed
+         * so the warmed-up rounds can be read off directly
+         */
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.gc();
+            OrderHashTable table = new OrderHashTable();
+
+            long total = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                long start = System.nanoTime();
+                table.put(keys[i], orders[i]);
+                latencies[i] = System.nanoTime() - start;
+            }
+            total = System.nanoTime() - total;
+
+            if (table.getSize() != n) {
+                throw new IllegalStateException("Hasil benchmark tidak valid");
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf("%-8d %10d %10d %10d %10d %12.1f%n", round,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[n - 1], total / 1e6);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,213 @@
+package bench;
+
+import datastructure.graph.CompiledShippingGraph;
+import datastructure.graph.ShippingGraph;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Peak queue size, allocation and latency of shortest path queries on a
+ * random shipping network, against the original Dijkstra over the
+ * adjacency maps with a PriorityQueue of Node objects.
+ * Every query uses a new origin, so ShippingGraph always misses its cache.
+ * Usage: java -Xmx3g bench.ShortestPathBenchmark [cities] [routes...], default 50000 400000 3200000
+ */
+public class ShortestPathBenchmark {
+    private static final int QUERIES = 20;
+    private static final int ROUNDS = 3;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int[] routeCounts = args.length > 1 ? new int[args.length - 1] : new int[]{400_000, 3_200_000};
+        for (int i = 1; i < args.length; i++) {
+            routeCounts[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        for (int routes : routeCounts) {
+            ShippingGraph graph = buildGraph(n, routes);
+            CompiledShippingGraph compiled = graph.compile();
+            String[] cities = new String[n];
+            for (int i = 0; i < n; i++) {
+                cities[i] = city(i);
+            }
+
+            System.out.println("\n" + n + " cities, " + routes + " routes, " + QUERIES + " queries per round");
+            System.out.printf("%-28s %12s %12s %12s%n", "IMPLEMENTATION", "PEAK QUEUE", "ms/query", "KB/query");
+
+            /**
+             * All three implementations answer the same queries and are checked
+             * against each other. Each round has its own origins, so every
+             * ShippingGraph query is a cache miss.
+             */
+            Random random = new Random(42);
+            int[] sources = new int[QUERIES * ROUNDS];
+            int[] targets = new int[QUERIES * ROUNDS];
+            for (int q = 0; q < sources.length; q++) {
+                sources[q] = random.nextInt(n);
+                targets[q] = random.nextInt(n);
+            }
+            int[] expected = new int[sources.length];
+
+            /**
+             * Baseline
+             */
+            double latency = Double.MAX_VALUE, allocated = Double.MAX_VALUE;
+            int peakQueue = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long bytes = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (int q = round * QUERIES; q < (round + 1) * QUERIES; q++) {
+                    int[] peak = new int[1];
+                    expected[q] = mapDijkstra(graph.getAdjacencyList(), cities[sources[q]], peak)
+                            .get(cities[targets[q]]);
+                    peakQueue = Math.max(peakQueue, peak[0]);
+                }
+                latency = Math.min(latency, (System.nanoTime() - start) / 1e6 / QUERIES);
+                allocated = Math.min(allocated, (THREADS.getCurrentThreadAllocatedBytes() - bytes) / 1024.0 / QUERIES);
+            }
+            print("map + PriorityQueue", String.valueOf(peakQueue), latency, allocated);
+
+            /**
+             * ShippingGraph cache miss: Dijkstra on the compiled graph
+             * plus the dist and prev arrays of the cached tree
+             */
+            latency = Double.MAX_VALUE;
+            allocated = Double.MAX_VALUE;
+            long misses = graph.getPathCacheMisses();
+            for (int round = 0; round < ROUNDS; round++) {
+                long bytes = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (int q = round * QUERIES; q < (round + 1) * QUERIES; q++) {
+                    if (graph.getDistance(cities[sources[q]], cities[targets[q]]) != expected[q]) {
+                        throw new IllegalStateException("Hasil benchmark tidak valid");
+                    }
+                }
+                latency = Math.min(latency, (System.nanoTime() - start) / 1e6 / QUERIES);
+                allocated = Math.min(allocated, (THREADS.getCurrentThreadAllocatedBytes() - bytes) / 1024.0 / QUERIES);
+            }
+            if (graph.getPathCacheMisses() - misses != distinct(sources)) {
+                throw new IllegalStateException("Hasil benchmark tidak valid");
+            }
+            print("ShippingGraph, cache miss", "<= " + n, latency, allocated);
+
+            /**
+             * The indexed heap alone, with dist and prev reused across queries
+             */
+            latency = Double.MAX_VALUE;
+            allocated = Double.MAX_VALUE;
+            int[] dist = new int[n];
+            int[] prev = new int[n];
+            for (int round = 0; round < ROUNDS; round++) {
+                long bytes = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (int q = round * QUERIES; q < (round + 1) * QUERIES; q++) {
+                    compiled.shortestPaths(graph.getCityId(cities[sources[q]]), dist, prev);
+                    if (dist[graph.getCityId(cities[targets[q]])] != expected[q]) {
+                        throw new IllegalStateException("Hasil benchmark tidak valid");
+                    }
+                }
+                latency = Math.min(latency, (System.nanoTime() - start) / 1e6 / QUERIES);
+                allocated = Math.min(allocated, (THREADS.getCurrentThreadAllocatedBytes() - bytes) / 1024.0 / QUERIES);
+            }
+            print("Indexed heap, reused arrays", "<= " + n, latency, allocated);
+        }
+    }
+
+    /**
+     * A connected network: a chain through all cities,
+     * then random routes up to the requested count
+     */
+    private static ShippingGraph buildGraph(int n, int routes) {
+        ShippingGraph graph = new ShippingGraph();
+        Random random = new Random(7);
+        for (int i = 1; i < n; i++) {
+            graph.addRoute(city(i - 1), city(i), 10 + random.nextInt(990));
+        }
+        for (int i = n - 1; i < routes; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            if (from != to) {
+                graph.addRoute(city(from), city(to), 10 + random.nextInt(990));
+            }
+        }
+        return graph;
+    }
+
+    private static void print(String name, String peakQueue, double latency, double allocated) {
+        System.out.printf("%-28s %12s %12.1f %12.1f%n", name, peakQueue, latency, allocated);
+    }
+
+    private static int distinct(int[] values) {
+        Set<Integer> seen = new HashSet<>();
+        for (int value : values) {
+            seen.add(value);
+        }
+        return seen.size();
+    }
+
+    private static String city(int i) {
+        return "Kota" + i;
+    }
+
+    /**
+     * The original ShippingGraph.dijkstra: a new Node per relaxation pushed
+     * into a PriorityQueue, stale entries skipped through a visited set.
+     * Also records the peak queue size.
+     */
+    private static Map<String, Integer> mapDijkstra(Map<String, Map<String, Integer>> adjacencyList,
+                                                    String start, int[] peakQueue) {
+        Map<String, Integer> distances = new HashMap<>();
+        Map<String, String> previous = new HashMap<>();
+        PriorityQueue<Node> pq = new PriorityQueue<>();
+        Set<String> visited = new HashSet<>();
+
+        for (String city : adjacencyList.keySet()) {
+            distances.put(city, Integer.MAX_VALUE);
+        }
+        distances.put(start, 0);
+        pq.offer(new Node(start, 0));
+
+        while (!pq.isEmpty()) {
+            peakQueue[0] = Math.max(peakQueue[0], pq.size());
+            Node current = pq.poll();
+            String currentCity = current.city;
+            if (!visited.add(currentCity))
+                continue;
+
+            for (Map.Entry<String, Integer> neighbor : adjacencyList.get(currentCity).entrySet()) {
+                String nextCity = neighbor.getKey();
+                int newDist = distances.get(currentCity) + neighbor.getValue();
+                if (newDist < distances.get(nextCity)) {
+                    distances.put(nextCity, newDist);
+                    previous.put(nextCity, currentCity);
+                    pq.offer(new Node(nextCity, newDist));
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static final class Node implements Comparable<Node> {
+        final String city;
+        final int distance;
+
+        Node(String city, int distance) {
+            this.city = city;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            return Integer.compare(distance, other.distance);
+        }
+    }
+}
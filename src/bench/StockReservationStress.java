@@ -0,0 +1,151 @@
+package bench;
+
+import datastructure.tree.CategoryFacet;
+import datastructure.tree.ConcurrentProductCatalog;
+import models.Product;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stress ConcurrentProductCatalog stock reservation: order threads reserve
+ * and cancel stock of a few hot products while another thread deletes,
+ * re-inserts and reprices products. Fails if any product is oversold or
+ * if the catalog or category stock aggregates drift from the product stock.
+ * Usage: java bench.StockReservationStress [threads] [seconds], default 8 3
+ */
+public class StockReservationStress {
+    private static final int PRODUCTS = 16;
+    private static final int CHURN_PRODUCTS = 16;
+    private static final int INITIAL_STOCK = 200;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 3;
+
+        ConcurrentProductCatalog catalog = new ConcurrentProductCatalog();
+        for (int i = 0; i < PRODUCTS; i++) {
+            catalog.insert(new Product(id("P", i), "Produk " + i, "Kategori" + (i % 4), 1000, INITIAL_STOCK));
+        }
+        for (int i = 0; i < CHURN_PRODUCTS; i++) {
+            catalog.insert(new Product(id("X", i), "Churn " + i, "Kategori" + (i % 4), 500, INITIAL_STOCK));
+        }
+
+        AtomicIntegerArray reserved = new AtomicIntegerArray(PRODUCTS);
+        AtomicIntegerArray released = new AtomicIntegerArray(PRODUCTS);
+        LongAdder attempts = new LongAdder();
+        LongAdder successes = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread[] workers = new Thread[threads + 1];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                awaitQuietly(start);
+                while (System.nanoTime() < deadline) {
+                    int quantity = 1 + random.nextInt(3);
+                    if (random.nextInt(4) == 0) {
+                        catalog.tryReserveStock(id("X", random.nextInt(CHURN_PRODUCTS)), quantity);
+                        continue;
+                    }
+
+                    int i = random.nextInt(PRODUCTS);
+                    attempts.increment();
+                    if (!catalog.tryReserveStock(id("P", i), quantity))
+                        continue;
+                    successes.increment();
+                    reserved.addAndGet(i, quantity);
+
+                    /**
+                     * Cancel half of the orders so stock keeps flowing both ways
+                     * and threads keep competing for the last units
+                     */
+                    if (random.nextBoolean()) {
+                        catalog.releaseStock(id("P", i), quantity);
+                        released.addAndGet(i, quantity);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Structural writer: the delete racing a reservation is the case
+         * that used to leave the category stock off
+         */
+        workers[threads] = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            awaitQuietly(start);
+            while (System.nanoTime() < deadline) {
+                int i = random.nextInt(CHURN_PRODUCTS);
+                String id = id("X", i);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        catalog.delete(id);
+                        break;
+                    case 1:
+                        catalog.insert(new Product(id, "Churn " + i, "Kategori" + (i % 4), 500, INITIAL_STOCK));
+                        break;
+                    default:
+                        catalog.updatePrice(id, 100 + random.nextInt(900));
+                }
+            }
+        });
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long stockSum = 0;
+        Map<String, Long> categoryStock = new HashMap<>();
+        for (Product product : catalog) {
+            stockSum += product.getStock();
+            categoryStock.merge(product.getCategory(), (long) product.getStock(), Long::sum);
+        }
+        if (stockSum != catalog.getTotalStock()) {
+            throw new IllegalStateException("Agregat stok tidak cocok: " + catalog.getTotalStock() + " != " + stockSum);
+        }
+        for (CategoryFacet facet : catalog.getCategoryFacets()) {
+            long expected = categoryStock.getOrDefault(facet.getCategory(), 0L);
+            if (facet.getTotalStock() != expected) {
+                throw new IllegalStateException("Stok kategori " + facet.getCategory() + " tidak cocok: "
+                        + facet.getTotalStock() + " != " + expected);
+            }
+        }
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            int taken = reserved.get(i) - released.get(i);
+            int stock = catalog.search(id("P", i)).getStock();
+            if (taken > INITIAL_STOCK || stock < 0 || stock != INITIAL_STOCK - taken) {
+                throw new IllegalStateException("Stok terjual berlebih pada " + id("P", i)
+                        + ": dipesan " + taken + ", sisa " + stock);
+            }
+        }
+
+        System.out.println("Threads             : " + threads + " + 1 writer");
+        System.out.println("Reservation attempts: " + attempts.sum());
+        System.out.println("Successful          : " + successes.sum());
+        System.out.println("Oversells           : 0");
+        System.out.println("Aggregate stock     : " + catalog.getTotalStock() + " (catalog and categories match)");
+    }
+
+    private static String id(String prefix, int i) {
+        return prefix + String.format("%03d", i);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package datastructure.graph;
+
+import java.util.Arrays;
+
+/**
+ * Read-optimized form of a ShippingGraph.
+ * Cities are dense int IDs and routes are stored in compressed sparse row
+ * form: the neighbors of city c are targets[offsets[c]] up to
+ * targets[offsets[c + 1]] with matching weights. Shortest paths then run on
+ * primitive arrays without hashing, boxing or per-node objects.
+ * Queries keep their scratch state in a per-thread workspace, so threads
+ * that only query can share one compiled graph.
+ */
+public final class CompiledShippingGraph {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final String[] cities;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    CompiledShippingGraph(String[] cities, int[] offsets, int[] targets, int[] weights) {
+        this.cities = cities;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int getCityCount() {
+        return cities.length;
+    }
+
+    public String getCity(int id) {
+        return cities[id];
+    }
+
+    /**
+     * Change the distance of an existing directed edge in place.
+     *
+     * @param from
+     * @param to
+     * @param distance
+     * @return true if the edge exists, false if the graph must be rebuilt
+     */
+    boolean setWeight(int from, int to, int distance) {
+        if (from >= cities.length)
+            return false;
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) {
+                weights[e] = distance;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dijkstra's algorithm on the compiled graph, in O((V + E) log V).
+     * Each city is queued at most once and its key lowered in place,
+     * so the queue never holds more than V entries.
+     *
+     * @param source
+     * @param dist filled with the distance of every city, UNREACHABLE if none
+     * @param prev filled with the previous city on the shortest path, -1 if none
+     */
+    public void shortestPaths(int source, int[] dist, int[] prev) {
+        int n = cities.length;
+        Arrays.fill(dist, 0, n, UNREACHABLE);
+        Arrays.fill(prev, 0, n, -1);
+        IndexedDaryHeap heap = WORKSPACE.get().heap;
+        heap.reset(n);
+
+        dist[source] = 0;
+        heap.pushOrDecrease(source, 0);
+
+        while (!heap.isEmpty()) {
+            int city = heap.pop();
+            int cityDist = dist[city];
+            for (int e = offsets[city]; e < offsets[city + 1]; e++) {
+                int next = targets[e];
+                int newDist = cityDist + weights[e];
+                if (newDist < dist[next] && !heap.isRemoved(next)) {
+                    dist[next] = newDist;
+                    prev[next] = city;
+                    heap.pushOrDecrease(next, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-thread scratch space for queries, grown to the largest graph
+     * queried so far and reused, so the queue allocates nothing per query
+     */
+    private static final class Workspace {
+        final IndexedDaryHeap heap = new IndexedDaryHeap(16);
+    }
+}
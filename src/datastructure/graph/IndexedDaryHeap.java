@@ -0,0 +1,135 @@
+package datastructure.graph;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap of int vertices keyed by int distances, with decrease-key.
+ * Every vertex is in the heap at most once and its position is tracked in
+ * an index array, so the heap never grows past the vertex count and no
+ * stale entries are pushed. Each node has ARITY children, which makes the
+ * heap shallower and keeps the children of a node in one cache line.
+ * All storage is reused across queries, a query allocates nothing.
+ */
+final class IndexedDaryHeap {
+    private static final int ARITY = 4;
+    /**
+     * Position of a vertex that was never pushed, or that was popped
+     */
+    private static final int ABSENT = -1;
+    private static final int REMOVED = -2;
+
+    private int[] vertices;
+    private int[] keys;
+    private int[] positions;
+    private int size;
+
+    IndexedDaryHeap(int capacity) {
+        this.vertices = new int[capacity];
+        this.keys = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Empty the heap and make room for vertices 0 to vertexCount - 1.
+     *
+     * @param vertexCount
+     */
+    void reset(int vertexCount) {
+        if (positions.length < vertexCount) {
+            int capacity = Math.max(vertexCount, positions.length * 2);
+            vertices = new int[capacity];
+            keys = new int[capacity];
+            positions = new int[capacity];
+        }
+        Arrays.fill(positions, 0, vertexCount, ABSENT);
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param vertex
+     * @return true if the vertex was popped since the last reset
+     */
+    boolean isRemoved(int vertex) {
+        return positions[vertex] == REMOVED;
+    }
+
+    /**
+     * Push a vertex, or lower its key if it is already queued.
+     * A vertex already popped is ignored.
+     *
+     * @param vertex
+     * @param key
+     */
+    void pushOrDecrease(int vertex, int key) {
+        int i = positions[vertex];
+        if (i == REMOVED)
+            return;
+        if (i == ABSENT) {
+            i = size++;
+        } else if (key >= keys[i]) {
+            return;
+        }
+        siftUp(i, vertex, key);
+    }
+
+    /**
+     * Remove the vertex with the smallest key.
+     *
+     * @return vertex
+     */
+    int pop() {
+        int top = vertices[0];
+        positions[top] = REMOVED;
+        int last = --size;
+        if (last > 0) {
+            siftDown(0, vertices[last], keys[last]);
+        }
+        return top;
+    }
+
+    private void siftUp(int i, int vertex, int key) {
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            if (keys[parent] <= key)
+                break;
+            place(i, vertices[parent], keys[parent]);
+            i = parent;
+        }
+        place(i, vertex, key);
+    }
+
+    private void siftDown(int i, int vertex, int key) {
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= size)
+                break;
+
+            /**
+             * Find the smallest of up to ARITY children
+             */
+            int best = first;
+            int end = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < end; child++) {
+                if (keys[child] < keys[best]) {
+                    best = child;
+                }
+            }
+            if (key <= keys[best])
+                break;
+            place(i, vertices[best], keys[best]);
+            i = best;
+        }
+        place(i, vertex, key);
+    }
+
+    private void place(int i, int vertex, int key) {
+        vertices[i] = vertex;
+        keys[i] = key;
+        positions[vertex] = i;
+    }
+}
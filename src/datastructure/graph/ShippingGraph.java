@@ -2,29 +2,111 @@ package datastructure.graph;
 
 import java.util.*;
 
+/**
+ * Shipping network of cities and bidirectional routes.
+ * The adjacency maps are the mutable form used while routes are added,
+ * shortest paths run on a CompiledShippingGraph built from them on demand.
+ * Cities keep the dense ID they got when first added, so the compiled
+ * form only has to be rebuilt when a city or a route is added; changing the
+ * distance of an existing route is applied to it in place.
+ * Shortest path trees are cached per origin and only dropped when a
+ * route change alters them.
+ */
 public class ShippingGraph {
+    private static final int PATH_CACHE_CAPACITY = 64;
+
     private Map<String, Map<String, Integer>> adjacencyList;
+    private Map<String, Integer> cityIds;
+    private List<String> cities;
+    private CompiledShippingGraph compiled;
+    /**
+     * Set when the compiled form no longer matches the adjacency maps
+     */
+    private boolean dirty;
+    private ShortestPathCache pathCache;
 
     public ShippingGraph() {
         this.adjacencyList = new HashMap<>();
+        this.cityIds = new HashMap<>();
+        this.cities = new ArrayList<>();
+        this.pathCache = new ShortestPathCache(PATH_CACHE_CAPACITY);
     }
 
     public void addCity(String city) {
-        adjacencyList.putIfAbsent(city, new HashMap<>());
+        if (adjacencyList.putIfAbsent(city, new HashMap<>()) == null) {
+            cityIds.put(city, cities.size());
+            cities.add(city);
+            dirty = true;
+        }
     }
 
     public void addRoute(String from, String to, int distance) {
         /**
          * Ensure both cities exist in the graph
          */
-        adjacencyList.putIfAbsent(from, new HashMap<>());
-        adjacencyList.putIfAbsent(to, new HashMap<>());
+        addCity(from);
+        addCity(to);
 
         /**
          * Add bidirectional route
          */
-        adjacencyList.get(from).put(to, distance);
+        Integer previous = adjacencyList.get(from).put(to, distance);
         adjacencyList.get(to).put(from, distance);
+
+        int fromId = cityIds.get(from);
+        int toId = cityIds.get(to);
+        pathCache.routeChanged(fromId, toId, previous, distance);
+
+        /**
+         * A new distance on an existing route is patched into the compiled form
+         */
+        if (dirty || previous == null || compiled == null) {
+            dirty = true;
+            return;
+        }
+        if (!compiled.setWeight(fromId, toId, distance) || !compiled.setWeight(toId, fromId, distance)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the compiled form of the graph, rebuilding it in O(V + E)
+     * if cities or routes were added since the last build.
+     *
+     * @return Compiled graph, city IDs match getCityId
+     */
+    public CompiledShippingGraph compile() {
+        if (compiled != null && !dirty)
+            return compiled;
+
+        int n = cities.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + adjacencyList.get(cities.get(i)).size();
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int e = offsets[i];
+            for (Map.Entry<String, Integer> route : adjacencyList.get(cities.get(i)).entrySet()) {
+                targets[e] = cityIds.get(route.getKey());
+                weights[e] = route.getValue();
+                e++;
+            }
+        }
+
+        compiled = new CompiledShippingGraph(cities.toArray(new String[0]), offsets, targets, weights);
+        dirty = false;
+        return compiled;
+    }
+
+    /**
+     * @param city
+     * @return dense ID of the city, or -1 if it is not in the graph
+     */
+    public int getCityId(String city) {
+        Integer id = cityIds.get(city);
+        return id == null ? -1 : id;
     }
 
     /**
@@ -34,71 +116,36 @@ public class ShippingGraph {
      * @return Map of cities to their shortest distance from start
      */
     public Map<String, Integer> dijkstra(String start) {
-        Map<String, Integer> distances = new HashMap<>();
-        Map<String, String> previous = new HashMap<>();
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Set<String> visited = new HashSet<>();
+        CompiledShippingGraph graph = compile();
+        int source = getCityId(start);
+        ShortestPathTree tree = source >= 0 ? shortestPathTree(source) : null;
 
-        /**
-         * Set initial distances to infinity (MAX_VALUE)
-         */
-        for (String city : adjacencyList.keySet()) {
-            distances.put(city, Integer.MAX_VALUE);
+        Map<String, Integer> distances = new HashMap<>();
+        for (int i = 0; i < graph.getCityCount(); i++) {
+            distances.put(graph.getCity(i), tree == null ? CompiledShippingGraph.UNREACHABLE : tree.distance(i));
         }
-
-        /**
-         * Set distance to start city as 0 and add to priority queue
-         */
         distances.put(start, 0);
-        pq.offer(new Node(start, 0));
+        return distances;
+    }
 
-        /**
-         * Keep processing until queue is empty
-         */
-        while (!pq.isEmpty()) {
-            /**
-             * Get node with smallest distance
-             */
-            Node current = pq.poll();
-            String currentCity = current.city;
-
-            /**
-             * Skip if already visited
-             */
-            if (visited.contains(currentCity))
-                continue;
-
-            /**
-             * Mark current city as visited
-             */
-            visited.add(currentCity);
-
-            /**
-             * Skip if current city has no neighbors
-             */
-            if (!adjacencyList.containsKey(currentCity))
-                continue;
-
-            /**
-             * Loop through neighbors and update distances
-             */
-            for (Map.Entry<String, Integer> neighbor : adjacencyList.get(currentCity).entrySet()) {
-                String nextCity = neighbor.getKey();
-                int weight = neighbor.getValue();
-                int newDist = distances.get(currentCity) + weight;
-
-                /**
-                 * If new distance is shorter, update and add to queue
-                 */
-                if (newDist < distances.get(nextCity)) {
-                    distances.put(nextCity, newDist);
-                    previous.put(nextCity, currentCity);
-                    pq.offer(new Node(nextCity, newDist));
-                }
-            }
+    /**
+     * Get the shortest path tree of an origin, from the cache
+     * or by running Dijkstra over all cities on a miss.
+     *
+     * @param source
+     * @return Shortest path tree
+     */
+    private ShortestPathTree shortestPathTree(int source) {
+        ShortestPathTree tree = pathCache.get(source);
+        if (tree == null) {
+            CompiledShippingGraph graph = compile();
+            int[] dist = new int[graph.getCityCount()];
+            int[] prev = new int[graph.getCityCount()];
+            graph.shortestPaths(source, dist, prev);
+            tree = new ShortestPathTree(dist, prev);
+            pathCache.put(source, tree);
         }
-
-        return distances;
+        return tree;
     }
 
     /**
@@ -109,107 +156,56 @@ public class ShippingGraph {
      * @return List of cities representing the path
      */
     public List<String> getPath(String start, String end) {
-        Map<String, Integer> distances = new HashMap<>();
-        Map<String, String> previous = new HashMap<>();
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Set<String> visited = new HashSet<>();
-
-        /**
-         * Set initial distances to infinity (MAX_VALUE)
-         */
-        for (String city : adjacencyList.keySet()) {
-            distances.put(city, Integer.MAX_VALUE);
-        }
-
-        /**
-         * Set distance to start city as 0 and add to priority queue
-         */
-        distances.put(start, 0);
-        pq.offer(new Node(start, 0));
-
-        /**
-         * Keep processing until queue is empty
-         */
-        while (!pq.isEmpty()) {
-            /**
-             * Get node with smallest distance
-             */
-            Node current = pq.poll();
-            String currentCity = current.city;
-
-            /**
-             * Skip if already visited
-             */
-            if (visited.contains(currentCity))
-                continue;
-            visited.add(currentCity);
-
-            /**
-             * If reached end city, stop
-             */
-            if (currentCity.equals(end))
-                break;
-
-            /**
-             * Skip if current city has no neighbors
-             */
-            if (!adjacencyList.containsKey(currentCity))
-                continue;
-
-            /**
-             * Loop through neighbors and update distances
-             */
-            for (Map.Entry<String, Integer> neighbor : adjacencyList.get(currentCity).entrySet()) {
-                String nextCity = neighbor.getKey();
-                int weight = neighbor.getValue();
-                int newDist = distances.get(currentCity) + weight;
-
-                /**
-                 * If new distance is shorter, update and add to queue
-                 */
-                if (newDist < distances.get(nextCity)) {
-                    distances.put(nextCity, newDist);
-                    previous.put(nextCity, currentCity);
-                    pq.offer(new Node(nextCity, newDist));
-                }
-            }
-        }
-
-        /**
-         * Reconstruct path from end to start
-         */
         List<String> path = new ArrayList<>();
-        String current = end;
-        if (!previous.containsKey(end) && !start.equals(end)) {
+        int source = getCityId(start);
+        int target = getCityId(end);
+        if (source < 0 || target < 0) {
+            if (start.equals(end)) {
+                path.add(start);
+            }
             return path;
         }
-        while (current != null) {
-            path.add(0, current);
-            current = previous.get(current);
-        }
-        return path;
+
+        return shortestPathTree(source).path(target, compile());
     }
 
-    public Set<String> getAllCities() {
-        return adjacencyList.keySet();
+    /**
+     * Get the shortest distance from start to end city
+     *
+     * @param start
+     * @param end
+     * @return distance, or Integer.MAX_VALUE if there is no route
+     */
+    public int getDistance(String start, String end) {
+        if (start.equals(end))
+            return 0;
+        int source = getCityId(start);
+        int target = getCityId(end);
+        if (source < 0 || target < 0)
+            return CompiledShippingGraph.UNREACHABLE;
+        return shortestPathTree(source).distance(target);
     }
 
-    public Map<String, Map<String, Integer>> getAdjacencyList() {
-        return adjacencyList;
+    public long getPathCacheHits() {
+        return pathCache.getHits();
+    }
+
+    public long getPathCacheMisses() {
+        return pathCache.getMisses();
     }
 
-    private static class Node implements Comparable<Node> {
-        String city;
-        int distance;
+    public int getPathCacheSize() {
+        return pathCache.size();
+    }
 
-        public Node(String city, int distance) {
-            this.city = city;
-            this.distance = distance;
-        }
+    public Set<String> getAllCities() {
+        return Collections.unmodifiableSet(adjacencyList.keySet());
+    }
 
-        @Override
-        public int compareTo(Node other) {
-            return Integer.compare(this.distance, other.distance);
-        }
+    /**
+     * @return Read-only view of the routes, changes go through addCity and addRoute
+     */
+    public Map<String, Map<String, Integer>> getAdjacencyList() {
+        return Collections.unmodifiableMap(adjacencyList);
     }
 }
@@ -0,0 +1,68 @@
+package datastructure.graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of shortest path trees keyed by origin city ID.
+ * Origins repeat (warehouses ship to many destinations), so one Dijkstra
+ * run per origin answers every later query from it. On a route change only
+ * the trees that change are dropped, the rest stay valid.
+ */
+final class ShortestPathCache {
+    private final Map<Integer, ShortestPathTree> trees;
+    private long hits;
+    private long misses;
+
+    ShortestPathCache(int capacity) {
+        this.trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param origin
+     * @return cached tree, or null on a miss
+     */
+    ShortestPathTree get(int origin) {
+        ShortestPathTree tree = trees.get(origin);
+        if (tree == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return tree;
+    }
+
+    void put(int origin, ShortestPathTree tree) {
+        trees.put(origin, tree);
+    }
+
+    /**
+     * Drop the trees changed by setting the distance of route u - v.
+     * A new city without routes changes no tree, so addCity needs no call.
+     *
+     * @param u
+     * @param v
+     * @param oldDistance previous distance, or null for a new route
+     * @param distance
+     */
+    void routeChanged(int u, int v, Integer oldDistance, int distance) {
+        trees.values().removeIf(tree -> tree.affectedBy(u, v, oldDistance, distance));
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    int size() {
+        return trees.size();
+    }
+}
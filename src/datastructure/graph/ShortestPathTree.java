@@ -0,0 +1,72 @@
+package datastructure.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest paths from one origin to every city, as computed by Dijkstra.
+ * Cities added after the tree was built are not in its arrays and are
+ * reported as unreachable, which stays true until a route reaches them.
+ */
+final class ShortestPathTree {
+    private final int[] dist;
+    private final int[] prev;
+
+    ShortestPathTree(int[] dist, int[] prev) {
+        this.dist = dist;
+        this.prev = prev;
+    }
+
+    /**
+     * @param city
+     * @return distance from the origin, or UNREACHABLE
+     */
+    int distance(int city) {
+        return city < dist.length ? dist[city] : CompiledShippingGraph.UNREACHABLE;
+    }
+
+    /**
+     * @param city
+     * @param cities names by city ID
+     * @return Cities from the origin to the city, empty if unreachable
+     */
+    List<String> path(int city, CompiledShippingGraph cities) {
+        List<String> path = new ArrayList<>();
+        if (distance(city) == CompiledShippingGraph.UNREACHABLE)
+            return path;
+        for (int current = city; current != -1; current = prev[current]) {
+            path.add(cities.getCity(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Check whether setting the distance of route u - v changes this tree.
+     * A new or shorter route matters only if it shortens the way to one of
+     * its ends, a longer route only if the tree runs over it.
+     *
+     * @param u
+     * @param v
+     * @param oldDistance previous distance, or null for a new route
+     * @param distance
+     * @return true if the tree must be recomputed
+     */
+    boolean affectedBy(int u, int v, Integer oldDistance, int distance) {
+        if (oldDistance != null && distance == oldDistance)
+            return false;
+        if (oldDistance != null && distance > oldDistance)
+            return isTreeEdge(u, v) || isTreeEdge(v, u);
+        return shortens(u, v, distance) || shortens(v, u, distance);
+    }
+
+    private boolean isTreeEdge(int from, int to) {
+        return to < prev.length && prev[to] == from;
+    }
+
+    private boolean shortens(int from, int to, int distance) {
+        int fromDist = distance(from);
+        return fromDist != CompiledShippingGraph.UNREACHABLE && (long) fromDist + distance < distance(to);
+    }
+}
@@ -0,0 +1,284 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe order table for multi-threaded order intake.
+ * Reads take no locks, writes lock one of a fixed set of stripes,
+ * and resizing builds a new table while readers keep using the old one.
+ */
+public class ConcurrentOrderHashTable implements OrderStore {
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final double LOAD_FACTOR = 0.75;
+    /**
+     * Stripe counters are spread over separate cache lines
+     * so writers on neighbouring stripes do not contend
+     */
+    private static final int COUNTER_PADDING = 16;
+
+    /**
+     * Chain links are immutable so readers can traverse a bucket
+     * while a writer replaces it. Only the value can change in place.
+     */
+    private static final class Node {
+        final String key;
+        final int hash;
+        volatile Order value;
+        final Node next;
+
+        Node(String key, int hash, Order value, Node next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node> table;
+    private volatile int stripeThreshold;
+    private final ReentrantLock[] locks;
+    private final int[] stripeCounts;
+    private final LongAdder size;
+
+    public ConcurrentOrderHashTable() {
+        this.table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        this.stripeThreshold = thresholdFor(INITIAL_CAPACITY);
+        this.locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.stripeCounts = new int[STRIPES * COUNTER_PADDING];
+        this.size = new LongAdder();
+    }
+
+    private static int thresholdFor(int capacity) {
+        return (int) (capacity * LOAD_FACTOR / STRIPES);
+    }
+
+    /**
+     * Spread the String hash so the low bits used for buckets
+     * and stripes depend on the whole key.
+     *
+     * @param key
+     * @return spread hash
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Capacity is always a multiple of STRIPES, so all keys of a bucket
+     * share the same stripe and one lock guards the whole chain.
+     *
+     * @param hash
+     * @return stripe index
+     */
+    private static int stripeFor(int hash) {
+        return hash & (STRIPES - 1);
+    }
+
+    @Override
+    public Order get(String key) {
+        int h = hash(key);
+        AtomicReferenceArray<Node> tab = table;
+        Node current = tab.get(h & (tab.length() - 1));
+
+        while (current != null) {
+            if (current.hash == h && current.key.equals(key)) {
+                return current.value;
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
+    @Override
+    public void put(String key, Order value) {
+        int h = hash(key);
+        int stripe = stripeFor(h);
+        AtomicReferenceArray<Node> tab;
+        boolean needsResize = false;
+
+        locks[stripe].lock();
+        try {
+            /**
+             * Read the table under the stripe lock, a resize holds
+             * every stripe so it cannot be swapped out from under us
+             */
+            tab = table;
+            int index = h & (tab.length() - 1);
+            Node head = tab.get(index);
+
+            for (Node current = head; current != null; current = current.next) {
+                if (current.hash == h && current.key.equals(key)) {
+                    current.value = value;
+                    return;
+                }
+            }
+
+            /**
+             * Publish new node at the head of the chain
+             */
+            tab.set(index, new Node(key, h, value, head));
+            int count = ++stripeCounts[stripe * COUNTER_PADDING];
+            needsResize = count > stripeThreshold;
+        } finally {
+            locks[stripe].unlock();
+        }
+
+        size.increment();
+        if (needsResize) {
+            resize(tab);
+        }
+    }
+
+    @Override
+    public boolean remove(String key) {
+        int h = hash(key);
+        int stripe = stripeFor(h);
+
+        locks[stripe].lock();
+        try {
+            AtomicReferenceArray<Node> tab = table;
+            int index = h & (tab.length() - 1);
+            Node head = tab.get(index);
+
+            Node target = head;
+            while (target != null && !(target.hash == h && target.key.equals(key))) {
+                target = target.next;
+            }
+            if (target == null) {
+                return false;
+            }
+
+            /**
+             * Copy the nodes in front of the removed one,
+             * readers already inside the old chain are unaffected
+             */
+            Node newHead = target.next;
+            for (Node current = head; current != target; current = current.next) {
+                newHead = new Node(current.key, current.hash, current.value, newHead);
+            }
+            tab.set(index, newHead);
+            stripeCounts[stripe * COUNTER_PADDING]--;
+        } finally {
+            locks[stripe].unlock();
+        }
+
+        size.decrement();
+        return true;
+    }
+
+    /**
+     * Double the table. Writers are held off by taking every stripe lock,
+     * while readers continue on the old table until the new one is published.
+     *
+     * @param expected table that was full when the resize was requested
+     */
+    private void resize(AtomicReferenceArray<Node> expected) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+        }
+        try {
+            /**
+             * Another writer already resized this table
+             */
+            if (table != expected) {
+                return;
+            }
+
+            int newCapacity = expected.length() * 2;
+            AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(newCapacity);
+            for (int i = 0; i < expected.length(); i++) {
+                for (Node current = expected.get(i); current != null; current = current.next) {
+                    int index = current.hash & (newCapacity - 1);
+                    newTable.set(index, new Node(current.key, current.hash, current.value, newTable.get(index)));
+                }
+            }
+
+            stripeThreshold = thresholdFor(newCapacity);
+            table = newTable;
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Collect all orders. The result is weakly consistent with
+     * writes that happen while the table is being traversed.
+     *
+     * @return List of orders
+     */
+    @Override
+    public List<Order> getAllOrders() {
+        List<Order> orders = new ArrayList<>();
+        AtomicReferenceArray<Node> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node current = tab.get(i); current != null; current = current.next) {
+                orders.add(current.value);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Iterate the table as it was when the iterator was created.
+     * Weakly consistent: never fails on concurrent writes, but may or
+     * may not reflect writes made after it was created.
+     *
+     * @return Iterator over all orders
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        AtomicReferenceArray<Node> tab = table;
+        return new Iterator<Order>() {
+            private int index = 0;
+            private Node current = advance(null);
+
+            private Node advance(Node node) {
+                if (node != null && node.next != null) {
+                    return node.next;
+                }
+                while (index < tab.length()) {
+                    Node head = tab.get(index++);
+                    if (head != null) {
+                        return head;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public Order next() {
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                Order value = current.value;
+                current = advance(current);
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public int getSize() {
+        return (int) size.sum();
+    }
+}
@@ -0,0 +1,465 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Columnar order store that keeps order fields off-heap.
+ * Rows live in fixed-size direct buffer segments, one column after another.
+ * Strings are dictionary-encoded to int codes, while quantity, total and
+ * order time are stored as primitives. Order objects are only materialized
+ * when read, so changes to a returned Order are not written back; use
+ * updateStatus to change the status of a stored order.
+ * <p>
+ * The direct buffers are not counted against the heap and are only freed
+ * after they become unreachable and the garbage collector runs their
+ * cleaners, which a quiet heap may not do for a long time. Call close
+ * when the store is no longer needed, so the buffers become unreachable
+ * right away and are not kept alive by a lingering reference to the store.
+ */
+public class OffHeapOrderStore implements OrderStore, AutoCloseable {
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_ROWS = 1 << SEGMENT_BITS;
+    private static final long NON_NUMERIC_KEY = -1L;
+
+    /**
+     * Column layout inside a segment: each column holds SEGMENT_ROWS values
+     */
+    private static final int KEY_COLUMN = 0;
+    private static final int TIME_COLUMN = KEY_COLUMN + Long.BYTES * SEGMENT_ROWS;
+    private static final int TOTAL_COLUMN = TIME_COLUMN + Long.BYTES * SEGMENT_ROWS;
+    private static final int CUSTOMER_COLUMN = TOTAL_COLUMN + Double.BYTES * SEGMENT_ROWS;
+    private static final int PRODUCT_COLUMN = CUSTOMER_COLUMN + Integer.BYTES * SEGMENT_ROWS;
+    private static final int CITY_COLUMN = PRODUCT_COLUMN + Integer.BYTES * SEGMENT_ROWS;
+    private static final int QUANTITY_COLUMN = CITY_COLUMN + Integer.BYTES * SEGMENT_ROWS;
+    private static final int STATUS_COLUMN = QUANTITY_COLUMN + Integer.BYTES * SEGMENT_ROWS;
+    private static final int LIVE_COLUMN = STATUS_COLUMN + Byte.BYTES * SEGMENT_ROWS;
+    private static final int SEGMENT_BYTES = LIVE_COLUMN + Byte.BYTES * SEGMENT_ROWS;
+
+    /**
+     * Maps distinct strings to dense int codes and back
+     */
+    private static final class StringDictionary {
+        private Map<String, Integer> codes = new HashMap<>();
+        private List<String> values = new ArrayList<>();
+        private long heapBytes;
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                /**
+                 * Rough estimate: String object, its bytes, map entry and boxed code
+                 */
+                heapBytes += 24 + 16 + value.length() * 2L + 32 + 16 + 8;
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    private List<ByteBuffer> segments;
+    private int rowCount;
+    private int size;
+    private int[] freeRows;
+    private int freeCount;
+
+    private StringDictionary customers;
+    private StringDictionary products;
+    private StringDictionary cities;
+    private StringDictionary statuses;
+
+    /**
+     * Primary index from numeric order key to row, with linear probing
+     */
+    private long[] indexKeys;
+    private int[] indexRows;
+    private int indexSize;
+
+    /**
+     * Order IDs that are not "ORD" + number are indexed separately
+     */
+    private Map<String, Integer> nonNumericRows;
+    private Map<Integer, String> nonNumericKeys;
+    private boolean closed;
+
+    public OffHeapOrderStore() {
+        this.segments = new ArrayList<>();
+        this.rowCount = 0;
+        this.size = 0;
+        this.freeRows = new int[16];
+        this.freeCount = 0;
+        this.customers = new StringDictionary();
+        this.products = new StringDictionary();
+        this.cities = new StringDictionary();
+        this.statuses = new StringDictionary();
+        this.indexKeys = new long[16];
+        this.indexRows = new int[16];
+        Arrays.fill(indexKeys, NON_NUMERIC_KEY);
+        this.indexSize = 0;
+        this.nonNumericRows = new HashMap<>();
+        this.nonNumericKeys = new HashMap<>();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Penyimpanan pesanan sudah ditutup");
+        }
+    }
+
+    private ByteBuffer segment(int row) {
+        return segments.get(row >>> SEGMENT_BITS);
+    }
+
+    private static int offset(int column, int width, int row) {
+        return column + width * (row & (SEGMENT_ROWS - 1));
+    }
+
+    private static long encodeTime(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime decodeTime(long value) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L),
+                (int) Math.floorMod(value, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private int slotFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (indexKeys.length - 1);
+    }
+
+    /**
+     * @param key numeric order key
+     * @return row of the key or -1 if not found
+     */
+    private int indexGet(long key) {
+        int mask = indexKeys.length - 1;
+        for (int slot = slotFor(key); indexKeys[slot] != NON_NUMERIC_KEY; slot = (slot + 1) & mask) {
+            if (indexKeys[slot] == key) {
+                return indexRows[slot];
+            }
+        }
+        return -1;
+    }
+
+    private void indexPut(long key, int row) {
+        if ((indexSize + 1) * 4L > indexKeys.length * 3L) {
+            long[] oldKeys = indexKeys;
+            int[] oldRows = indexRows;
+            indexKeys = new long[oldKeys.length * 2];
+            indexRows = new int[oldKeys.length * 2];
+            Arrays.fill(indexKeys, NON_NUMERIC_KEY);
+            indexSize = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != NON_NUMERIC_KEY) {
+                    indexPut(oldKeys[i], oldRows[i]);
+                }
+            }
+        }
+
+        int mask = indexKeys.length - 1;
+        int slot = slotFor(key);
+        while (indexKeys[slot] != NON_NUMERIC_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        indexKeys[slot] = key;
+        indexRows[slot] = row;
+        indexSize++;
+    }
+
+    private void indexRemove(long key) {
+        int mask = indexKeys.length - 1;
+        int slot = slotFor(key);
+        while (indexKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        /**
+         * Backward-shift the rest of the probe run into the gap
+         */
+        int next = (slot + 1) & mask;
+        while (indexKeys[next] != NON_NUMERIC_KEY) {
+            int home = slotFor(indexKeys[next]);
+            boolean movable = slot <= next ? (home <= slot || home > next) : (home <= slot && home > next);
+            if (movable) {
+                indexKeys[slot] = indexKeys[next];
+                indexRows[slot] = indexRows[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        indexKeys[slot] = NON_NUMERIC_KEY;
+        indexSize--;
+    }
+
+    /**
+     * @param key
+     * @return row of the order or -1 if not found
+     */
+    private int findRow(String key) {
+        long numericKey = OrderOpenHashTable.parseKey(key);
+        if (numericKey == NON_NUMERIC_KEY) {
+            Integer row = nonNumericRows.get(key);
+            return row == null ? -1 : row;
+        }
+        return indexGet(numericKey);
+    }
+
+    /**
+     * Reuse a removed row if possible, otherwise append a new one
+     *
+     * @return row number
+     */
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if ((rowCount & (SEGMENT_ROWS - 1)) == 0) {
+            segments.add(ByteBuffer.allocateDirect(SEGMENT_BYTES).order(ByteOrder.nativeOrder()));
+        }
+        return rowCount++;
+    }
+
+    private void writeRow(int row, long numericKey, Order value) {
+        ByteBuffer segment = segment(row);
+        segment.putLong(offset(KEY_COLUMN, Long.BYTES, row), numericKey);
+        segment.putLong(offset(TIME_COLUMN, Long.BYTES, row), encodeTime(value.getOrderTime()));
+        segment.putDouble(offset(TOTAL_COLUMN, Double.BYTES, row), value.getTotalPrice());
+        segment.putInt(offset(CUSTOMER_COLUMN, Integer.BYTES, row), customers.encode(value.getCustomerName()));
+        segment.putInt(offset(PRODUCT_COLUMN, Integer.BYTES, row), products.encode(value.getProductId()));
+        segment.putInt(offset(CITY_COLUMN, Integer.BYTES, row), cities.encode(value.getShippingCity()));
+        segment.putInt(offset(QUANTITY_COLUMN, Integer.BYTES, row), value.getQuantity());
+        segment.put(offset(STATUS_COLUMN, Byte.BYTES, row), statusCode(value.getStatus()));
+        segment.put(offset(LIVE_COLUMN, Byte.BYTES, row), (byte) 1);
+    }
+
+    private byte statusCode(String status) {
+        int code = statuses.encode(status);
+        if (code > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Too many distinct order statuses: " + statuses.size());
+        }
+        return (byte) code;
+    }
+
+    /**
+     * Materialize the order stored in a row.
+     *
+     * @param row
+     * @return new Order object
+     */
+    private Order readRow(int row) {
+        ByteBuffer segment = segment(row);
+        long numericKey = segment.getLong(offset(KEY_COLUMN, Long.BYTES, row));
+        String orderId = numericKey == NON_NUMERIC_KEY ? nonNumericKeys.get(row) : OrderOpenHashTable.KEY_PREFIX + numericKey;
+
+        return new Order(orderId,
+                customers.decode(segment.getInt(offset(CUSTOMER_COLUMN, Integer.BYTES, row))),
+                products.decode(segment.getInt(offset(PRODUCT_COLUMN, Integer.BYTES, row))),
+                segment.getInt(offset(QUANTITY_COLUMN, Integer.BYTES, row)),
+                segment.getDouble(offset(TOTAL_COLUMN, Double.BYTES, row)),
+                cities.decode(segment.getInt(offset(CITY_COLUMN, Integer.BYTES, row))),
+                statuses.decode(segment.get(offset(STATUS_COLUMN, Byte.BYTES, row))),
+                decodeTime(segment.getLong(offset(TIME_COLUMN, Long.BYTES, row))));
+    }
+
+    private boolean isLive(int row) {
+        return segment(row).get(offset(LIVE_COLUMN, Byte.BYTES, row)) != 0;
+    }
+
+    @Override
+    public void put(String key, Order value) {
+        ensureOpen();
+        int row = findRow(key);
+        long numericKey = OrderOpenHashTable.parseKey(key);
+
+        if (row < 0) {
+            row = allocateRow();
+            if (numericKey == NON_NUMERIC_KEY) {
+                nonNumericRows.put(key, row);
+                nonNumericKeys.put(row, key);
+            } else {
+                indexPut(numericKey, row);
+            }
+            size++;
+        }
+        writeRow(row, numericKey, value);
+    }
+
+    @Override
+    public Order get(String key) {
+        ensureOpen();
+        int row = findRow(key);
+        return row < 0 ? null : readRow(row);
+    }
+
+    /**
+     * Update the status column of a stored order.
+     *
+     * @param key
+     * @param status
+     * @return true if updated, false if not found
+     */
+    public boolean updateStatus(String key, String status) {
+        ensureOpen();
+        int row = findRow(key);
+        if (row < 0)
+            return false;
+
+        segment(row).put(offset(STATUS_COLUMN, Byte.BYTES, row), statusCode(status));
+        return true;
+    }
+
+    @Override
+    public boolean remove(String key) {
+        ensureOpen();
+        int row = findRow(key);
+        if (row < 0)
+            return false;
+
+        long numericKey = OrderOpenHashTable.parseKey(key);
+        if (numericKey == NON_NUMERIC_KEY) {
+            nonNumericRows.remove(key);
+            nonNumericKeys.remove(row);
+        } else {
+            indexRemove(numericKey);
+        }
+
+        /**
+         * Mark the row dead and keep it for reuse
+         */
+        segment(row).put(offset(LIVE_COLUMN, Byte.BYTES, row), (byte) 0);
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        size--;
+        return true;
+    }
+
+    /**
+     * Iterate live rows in row order, materializing one order at a time.
+     *
+     * @return Iterator over all orders
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        ensureOpen();
+        return new Iterator<Order>() {
+            private int row = nextLive(0);
+
+            private int nextLive(int from) {
+                while (from < rowCount && !isLive(from)) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return row < rowCount;
+            }
+
+            @Override
+            public Order next() {
+                if (row >= rowCount) {
+                    throw new NoSuchElementException();
+                }
+                Order order = readRow(row);
+                row = nextLive(row + 1);
+                return order;
+            }
+        };
+    }
+
+    @Override
+    public List<Order> getAllOrders() {
+        ensureOpen();
+        List<Order> orders = new ArrayList<>(size);
+        forEach(orders::add);
+        return orders;
+    }
+
+    @Override
+    public int getSize() {
+        ensureOpen();
+        return size;
+    }
+
+    /**
+     * @return bytes held in direct buffer segments
+     */
+    public long getOffHeapBytes() {
+        ensureOpen();
+        return (long) segments.size() * SEGMENT_BYTES;
+    }
+
+    /**
+     * Estimate of heap bytes held by the primary index, free list and dictionaries.
+     *
+     * @return estimated heap bytes
+     */
+    public long getHeapBytes() {
+        ensureOpen();
+        long bytes = (long) indexKeys.length * Long.BYTES + (long) indexRows.length * Integer.BYTES;
+        bytes += (long) freeRows.length * Integer.BYTES;
+        bytes += customers.heapBytes + products.heapBytes + cities.heapBytes + statuses.heapBytes;
+        /**
+         * Non-numeric keys are kept in two hash maps
+         */
+        bytes += nonNumericRows.size() * 160L;
+        return bytes;
+    }
+
+    /**
+     * @return total memory footprint in bytes, off-heap plus estimated heap
+     */
+    public long getMemoryFootprint() {
+        ensureOpen();
+        return getOffHeapBytes() + getHeapBytes();
+    }
+
+    /**
+     * Drop every order and the direct buffers holding them.
+     * The native memory is returned once the buffers are collected.
+     * Every other operation throws IllegalStateException afterwards,
+     * closing again has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        segments.clear();
+        rowCount = 0;
+        size = 0;
+        freeRows = new int[0];
+        freeCount = 0;
+        indexKeys = new long[0];
+        indexRows = new int[0];
+        indexSize = 0;
+        nonNumericRows.clear();
+        nonNumericKeys.clear();
+    }
+}
@@ -0,0 +1,105 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the buckets of an OrderHashTable.
+ * The bucket arrays of the new and (while resizing) old table are treated
+ * as one index range, which is halved on every split so parallel streams
+ * can partition the table without copying it.
+ * The owner guarantees the chains it walks are never relinked into other
+ * buckets, so traversal never fails and never skips or repeats an order;
+ * orders written meanwhile may or may not be seen.
+ */
+class OrderBucketSpliterator implements Spliterator<Order> {
+    private static final OrderNode[] NO_BUCKETS = new OrderNode[0];
+
+    private final OrderNode[] table;
+    private final OrderNode[] oldTable;
+    private int index;
+    private final int fence;
+    private long estimatedSize;
+    private final int characteristics;
+    private OrderNode current;
+
+    OrderBucketSpliterator(OrderNode[] table, OrderNode[] oldTable, long estimatedSize, int characteristics) {
+        this(table, oldTable == null ? NO_BUCKETS : oldTable, 0,
+                table.length + (oldTable == null ? 0 : oldTable.length), estimatedSize, characteristics);
+    }
+
+    private OrderBucketSpliterator(OrderNode[] table, OrderNode[] oldTable,
+                                   int origin, int fence, long estimatedSize, int characteristics) {
+        this.table = table;
+        this.oldTable = oldTable;
+        this.index = origin;
+        this.fence = fence;
+        this.estimatedSize = estimatedSize;
+        this.characteristics = characteristics;
+    }
+
+    /**
+     * @param position index in the combined bucket range
+     * @return head of the bucket chain
+     */
+    private OrderNode bucketAt(int position) {
+        return position < table.length ? table[position] : oldTable[position - table.length];
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Order> action) {
+        while (current == null) {
+            if (index >= fence)
+                return false;
+            current = bucketAt(index++);
+        }
+
+        Order value = current.value;
+        current = current.next;
+        action.accept(value);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Order> action) {
+        /**
+         * Finish the chain in progress, then walk the remaining buckets
+         */
+        for (; current != null; current = current.next) {
+            action.accept(current.value);
+        }
+        while (index < fence) {
+            for (OrderNode node = bucketAt(index++); node != null; node = node.next) {
+                action.accept(node.value);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Order> trySplit() {
+        int mid = (index + fence) >>> 1;
+        /**
+         * Only split on bucket boundaries
+         */
+        if (current != null || mid <= index)
+            return null;
+
+        OrderBucketSpliterator prefix = new OrderBucketSpliterator(table, oldTable, index, mid,
+                estimatedSize >>> 1, characteristics);
+        index = mid;
+        estimatedSize -= prefix.estimatedSize;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
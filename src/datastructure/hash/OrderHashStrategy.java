@@ -0,0 +1,70 @@
+package datastructure.hash;
+
+/**
+ * Hash functions that map an order key to a bucket of OrderHashTable.
+ * Table capacity is always a power of two.
+ */
+public enum OrderHashStrategy {
+    /**
+     * Original polynomial rolling hash, reduced modulo capacity per character
+     */
+    POLYNOMIAL {
+        @Override
+        public int index(String key, int capacity) {
+            int hash = 0;
+            for (int i = 0; i < key.length(); i++) {
+                /**
+                 * For each character, multiply current hash by 31 and add character code
+                 */
+                hash = (hash * 31 + key.charAt(i)) % capacity;
+            }
+            return Math.abs(hash);
+        }
+    },
+
+    /**
+     * String.hashCode with its high bits folded into the low bits used for the bucket
+     */
+    SPREAD {
+        @Override
+        public int index(String key, int capacity) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & (capacity - 1);
+        }
+    },
+
+    /**
+     * MurmurHash3 (x86, 32-bit) over the key characters, for keys that cluster
+     * under the simpler hashes
+     */
+    MURMUR3 {
+        @Override
+        public int index(String key, int capacity) {
+            int h = 0x9747b28c;
+            for (int i = 0; i < key.length(); i++) {
+                int k = key.charAt(i) * 0xcc9e2d51;
+                k = Integer.rotateLeft(k, 15) * 0x1b873593;
+                h ^= k;
+                h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+            }
+
+            /**
+             * Final avalanche so every input bit affects the bucket bits
+             */
+            h ^= key.length();
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h & (capacity - 1);
+        }
+    };
+
+    /**
+     * @param key
+     * @param capacity power of two
+     * @return bucket index in [0, capacity)
+     */
+    public abstract int index(String key, int capacity);
+}
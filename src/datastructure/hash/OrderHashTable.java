@@ -2,95 +2,296 @@ package datastructure.hash;
 
 import models.Order;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
-public class OrderHashTable {
+public class OrderHashTable implements OrderStore {
     private OrderNode[] table;
     private int size;
     private int capacity;
+    private static final int INITIAL_CAPACITY = 16;
     private static final double LOAD_FACTOR = 0.75;
+    /**
+     * Shrink only when the table is far below the grow threshold,
+     * so alternating put/remove around one size cannot flip-flop
+     */
+    private static final double SHRINK_LOAD_FACTOR = 0.2;
+    /**
+     * Non-empty buckets migrated per operation while a resize is in progress
+     */
+    private static final int MIGRATION_STEP = 4;
+
+    /**
+     * Previous table while an incremental resize is in progress, null otherwise.
+     * Buckets below migrationIndex have already been moved to table.
+     */
+    private OrderNode[] oldTable;
+    private int oldCapacity;
+    private int migrationIndex;
+    /**
+     * Set when a cursor was opened on the current table. The next resize
+     * then migrates a private copy of the bucket array and copies nodes
+     * instead of relinking them, so the cursor's chains are never rewired.
+     */
+    private boolean cursorOpened;
+    private boolean copyOnMigrate;
+
+    private OrderStatusIndex statusIndex;
+    private OrderLookupIndex customerIndex;
+    private OrderLookupIndex productIndex;
+    private OrderTimeIndex timeIndex;
+
+    private OrderHashStrategy hashStrategy;
+    private int resizeCount;
+
+    /**
+     * Nodes created before the latest snapshot have a lower version.
+     * While snapshots are open those nodes are never changed in place.
+     */
+    private int version;
+    /**
+     * Snapshots are closed on whichever thread read them, so the count is atomic
+     */
+    private final AtomicInteger openSnapshots = new AtomicInteger();
 
     public OrderHashTable() {
-        this.capacity = 16; // initial capacity
+        this(OrderHashStrategy.POLYNOMIAL);
+    }
+
+    public OrderHashTable(OrderHashStrategy hashStrategy) {
+        this.hashStrategy = hashStrategy;
+        this.capacity = INITIAL_CAPACITY;
         this.table = new OrderNode[capacity];
         this.size = 0;
+        this.statusIndex = new OrderStatusIndex();
+        this.customerIndex = new OrderLookupIndex(Order::getCustomerName);
+        this.productIndex = new OrderLookupIndex(Order::getProductId);
+        this.timeIndex = new OrderTimeIndex();
+    }
+
+    /**
+     * Add an order to every secondary index.
+     *
+     * @param key
+     * @param order
+     */
+    private void indexOrder(String key, Order order) {
+        statusIndex.add(key, order);
+        customerIndex.add(key, order);
+        productIndex.add(key, order);
+        timeIndex.add(key, order);
     }
 
     /**
-     * Hash function to compute the index for a given key.
-     * It uses a simple polynomial rolling hash function.
-     * 
+     * Remove an order from every secondary index.
+     *
      * @param key
-     * @return index in the hash table
+     * @param order
+     */
+    private void unindexOrder(String key, Order order) {
+        statusIndex.remove(key);
+        customerIndex.remove(key, order);
+        productIndex.remove(key, order);
+        timeIndex.remove(key, order);
+    }
+
+    /**
+     * Hash function to compute the index for a given key,
+     * delegated to the configured hash strategy.
+     *
+     * @param key
+     * @param capacity
+     * @return index in a table of the given capacity
+     */
+    private int hash(String key, int capacity) {
+        return hashStrategy.index(key, capacity);
+    }
+
+    /**
+     * Start an incremental resize to the given capacity.
+     * The current table becomes the old table and is migrated
+     * a few buckets at a time by subsequent operations.
+     *
+     * @param newCapacity
      */
-    private int hash(String key) {
-        int hash = 0;
-        for (int i = 0; i < key.length(); i++) {
+    private void startResize(int newCapacity) {
+        oldTable = cursorOpened ? table.clone() : table;
+        copyOnMigrate = cursorOpened;
+        cursorOpened = false;
+        oldCapacity = capacity;
+        migrationIndex = 0;
+        capacity = newCapacity;
+        table = new OrderNode[capacity];
+        resizeCount++;
+    }
+
+    /**
+     * Move every node of one old bucket into the new table.
+     *
+     * @param index
+     */
+    private void migrateBucket(int index) {
+        OrderNode current = oldTable[index];
+        oldTable[index] = null;
+
+        while (current != null) {
+            OrderNode next = current.next;
+            int newIndex = hash(current.key, capacity);
             /**
-             * For each character, multiply current hash by 31 and add character code
+             * Relink the node unless an open snapshot or cursor still uses it
              */
-            hash = (hash * 31 + key.charAt(i)) % capacity;
+            OrderNode moved = copyOnMigrate || isShared(current)
+                    ? new OrderNode(current.key, current.value, version) : current;
+            moved.next = table[newIndex];
+            table[newIndex] = moved;
+            current = next;
         }
-        return Math.abs(hash);
+    }
+
+    private boolean isShared(OrderNode node) {
+        return openSnapshots.get() > 0 && node.version < version;
     }
 
     /**
-     * Resize the hash table when load factor exceeds threshold
+     * Make a bucket chain safe to change in place.
+     * If an open snapshot shares any node of the chain, the chain is copied.
+     *
+     * @param index
+     * @return head of the chain in the current table
      */
-    private void resize() {
-        int oldCapacity = capacity;
-        capacity *= 2;
-        OrderNode[] oldTable = table;
-        table = new OrderNode[capacity];
-        size = 0;
+    private OrderNode ownChain(int index) {
+        OrderNode head = table[index];
+        if (openSnapshots.get() == 0)
+            return head;
 
+        boolean shared = false;
+        for (OrderNode current = head; current != null && !shared; current = current.next) {
+            shared = current.version < version;
+        }
+        if (!shared)
+            return head;
+
+        OrderNode copyHead = null;
+        OrderNode copyTail = null;
+        for (OrderNode current = head; current != null; current = current.next) {
+            OrderNode copy = new OrderNode(current.key, current.value, version);
+            if (copyTail == null) {
+                copyHead = copy;
+            } else {
+                copyTail.next = copy;
+            }
+            copyTail = copy;
+        }
+        table[index] = copyHead;
+        return copyHead;
+    }
+
+    /**
+     * Migrate a bounded number of old buckets and finish the resize
+     * once the old table is empty.
+     */
+    private void migrationStep() {
+        if (oldTable == null)
+            return;
+
+        int migrated = 0;
+        int visited = 0;
         /**
-         * Rehash all existing entries into new table
+         * Empty buckets are cheap to skip, but still bound the scan
+         * so a sparse old table cannot cause a long pause
          */
-        for (int i = 0; i < oldCapacity; i++) {
-            OrderNode current = oldTable[i];
-            while (current != null) {
-                put(current.key, current.value);
-                current = current.next;
+        while (migrationIndex < oldCapacity && migrated < MIGRATION_STEP
+                && visited < MIGRATION_STEP * 16) {
+            if (oldTable[migrationIndex] != null) {
+                migrateBucket(migrationIndex);
+                migrated++;
             }
+            migrationIndex++;
+            visited++;
+        }
+
+        if (migrationIndex >= oldCapacity) {
+            oldTable = null;
+            oldCapacity = 0;
+        }
+    }
+
+    /**
+     * Move the old bucket of a key ahead of the migration cursor,
+     * so writes only ever have to touch the new table.
+     *
+     * @param key
+     */
+    private void migrateKey(String key) {
+        if (oldTable == null)
+            return;
+
+        int oldIndex = hash(key, oldCapacity);
+        if (oldIndex >= migrationIndex && oldTable[oldIndex] != null) {
+            migrateBucket(oldIndex);
+        }
+    }
+
+    /**
+     * Grow when the load factor exceeds the threshold and shrink after
+     * mass removals. A new resize only starts once the previous one finished.
+     */
+    private void checkResize() {
+        if (oldTable != null)
+            return;
+
+        if ((double) size / capacity >= LOAD_FACTOR) {
+            startResize(capacity * 2);
+        } else if (capacity > INITIAL_CAPACITY && (double) size / capacity < SHRINK_LOAD_FACTOR) {
+            startResize(capacity / 2);
         }
     }
 
     /**
      * Insert or update an order in the hash table.
-     * 
+     *
      * @param key
      * @param value
      */
     public void put(String key, Order value) {
         /**
-         * Check load factor and resize if necessary
+         * Advance any resize in progress, then check load factor
          */
-        if ((double) size / capacity >= LOAD_FACTOR) {
-            resize();
-        }
+        migrationStep();
+        checkResize();
+        migrateKey(key);
 
         /**
          * Compute index and insert/update the order
          */
-        int index = hash(key);
-        OrderNode newNode = new OrderNode(key, value);
+        int index = hash(key, capacity);
+        OrderNode newNode = new OrderNode(key, value, version);
 
         if (table[index] == null) {
             table[index] = newNode;
             size++;
+            indexOrder(key, value);
         } else {
             /**
              * Handle collision with separate chaining
              */
-            OrderNode current = table[index];
+            OrderNode current = ownChain(index);
             while (current != null) {
                 /**
                  * Update existing key
                  */
                 if (current.key.equals(key)) {
+                    unindexOrder(key, current.value);
                     current.value = value;
+                    indexOrder(key, value);
                     return;
                 }
                 /**
@@ -105,40 +306,65 @@ public class OrderHashTable {
              */
             current.next = newNode;
             size++;
+            indexOrder(key, value);
         }
     }
 
     /**
-     * Retrieve an order by key.
-     * 
+     * Find the node for a key, checking the new table first
+     * and the old table while a resize is in progress.
+     *
      * @param key
-     * @return Order object or null if not found
+     * @return OrderNode or null if not found
      */
-    public Order get(String key) {
-        int index = hash(key);
-        OrderNode current = table[index];
+    private OrderNode findNode(String key) {
+        OrderNode current = table[hash(key, capacity)];
 
         /**
          * Traverse the chain to find the key
          */
         while (current != null) {
             if (current.key.equals(key)) {
-                return current.value;
+                return current;
             }
             current = current.next;
         }
+
+        if (oldTable != null) {
+            current = oldTable[hash(key, oldCapacity)];
+            while (current != null) {
+                if (current.key.equals(key)) {
+                    return current;
+                }
+                current = current.next;
+            }
+        }
         return null;
     }
 
+    /**
+     * Retrieve an order by key.
+     *
+     * @param key
+     * @return Order object or null if not found
+     */
+    public Order get(String key) {
+        OrderNode node = findNode(key);
+        return node == null ? null : node.value;
+    }
+
     /**
      * Remove an order by key.
-     * 
+     *
      * @param key
      * @return true if removed, false if not found
      */
     public boolean remove(String key) {
-        int index = hash(key);
-        OrderNode current = table[index];
+        migrationStep();
+        migrateKey(key);
+
+        int index = hash(key, capacity);
+        OrderNode current = ownChain(index);
         OrderNode prev = null;
 
         /**
@@ -152,6 +378,8 @@ public class OrderHashTable {
                     prev.next = current.next;
                 }
                 size--;
+                unindexOrder(key, current.value);
+                checkResize();
                 return true;
             }
             prev = current;
@@ -160,22 +388,218 @@ public class OrderHashTable {
         return false;
     }
 
+    /**
+     * Update the status of an order and re-index it.
+     * Status changes must go through here to keep the status index in sync.
+     *
+     * @param key
+     * @param status
+     * @return true if updated, false if not found
+     */
+    public boolean updateStatus(String key, String status) {
+        migrateKey(key);
+        OrderNode node = ownChain(hash(key, capacity));
+        while (node != null && !node.key.equals(key)) {
+            node = node.next;
+        }
+        if (node == null)
+            return false;
+
+        Order order = node.value;
+        if (openSnapshots.get() > 0) {
+            /**
+             * Open snapshots may hold this Order, so publish a copy with the new status
+             */
+            Order updated = new Order(order.getOrderId(), order.getCustomerName(), order.getProductId(),
+                    order.getQuantity(), order.getTotalPrice(), order.getShippingCity(),
+                    status, order.getOrderTime());
+            unindexOrder(key, order);
+            node.value = updated;
+            indexOrder(key, updated);
+        } else {
+            order.setStatus(status);
+            statusIndex.move(key, order);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieve all orders with a given status.
+     * Cost is proportional to the number of matching orders.
+     *
+     * @param status
+     * @return List of orders with the given status
+     */
+    public List<Order> getOrdersByStatus(String status) {
+        return statusIndex.get(status);
+    }
+
+    /**
+     * @return Map of status to number of orders with that status
+     */
+    public Map<String, Integer> getStatusCounts() {
+        return statusIndex.counts();
+    }
+
+    /**
+     * Retrieve one page of orders placed by a customer.
+     *
+     * @param customerName
+     * @param afterKey last order ID of the previous page, or null for the first page
+     * @param limit maximum number of orders to return
+     * @return List of orders sorted by order ID
+     */
+    public List<Order> getOrdersByCustomer(String customerName, String afterKey, int limit) {
+        return customerIndex.get(customerName, afterKey, limit);
+    }
+
+    public List<Order> getOrdersByCustomer(String customerName) {
+        return customerIndex.get(customerName, null, Integer.MAX_VALUE);
+    }
+
+    public int countOrdersByCustomer(String customerName) {
+        return customerIndex.count(customerName);
+    }
+
+    /**
+     * Retrieve one page of orders containing a product.
+     *
+     * @param productId
+     * @param afterKey last order ID of the previous page, or null for the first page
+     * @param limit maximum number of orders to return
+     * @return List of orders sorted by order ID
+     */
+    public List<Order> getOrdersByProduct(String productId, String afterKey, int limit) {
+        return productIndex.get(productId, afterKey, limit);
+    }
+
+    public List<Order> getOrdersByProduct(String productId) {
+        return productIndex.get(productId, null, Integer.MAX_VALUE);
+    }
+
+    public int countOrdersByProduct(String productId) {
+        return productIndex.count(productId);
+    }
+
+    /**
+     * Retrieve orders placed in [from, to), oldest first, in O(log n + k).
+     *
+     * @param from inclusive
+     * @param to exclusive
+     * @return List of orders in the time range, empty if from is not before to
+     */
+    public List<Order> ordersBetween(LocalDateTime from, LocalDateTime to) {
+        return timeIndex.between(from, to);
+    }
+
+    /**
+     * Streaming cursor over orders placed in [from, to), oldest first.
+     * Nothing is copied up front and the cursor is weakly consistent
+     * with orders added or removed while it is open.
+     *
+     * @param from inclusive
+     * @param to exclusive
+     * @return Iterator over orders in the time range, empty if from is not before to
+     */
+    public Iterator<Order> ordersBetweenCursor(LocalDateTime from, LocalDateTime to) {
+        return timeIndex.cursor(from, to);
+    }
+
     public List<Order> getAllOrders() {
-        List<Order> orders = new ArrayList<>();
+        List<Order> orders = new ArrayList<>(size);
         /**
          * Traverse entire table and collect all orders
          */
-        for (int i = 0; i < capacity; i++) {
-            OrderNode current = table[i];
-            while (current != null) {
-                orders.add(current.value);
-                current = current.next;
-            }
-        }
+        forEach(orders::add);
         return orders;
     }
 
+    /**
+     * Visit every order in place without copying the table.
+     *
+     * @param action
+     */
+    @Override
+    public void forEach(Consumer<? super Order> action) {
+        spliterator().forEachRemaining(action);
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Spliterator partitioned by bucket range, for sequential or parallel streams.
+     * A resize in progress is finished first, so the cursor walks one table.
+     * Traversal is weakly consistent: every order present for the whole
+     * traversal is seen exactly once, even if the table resizes meanwhile,
+     * and orders added or removed while it runs may or may not be seen.
+     *
+     * @return Spliterator over all orders
+     */
+    @Override
+    public Spliterator<Order> spliterator() {
+        while (oldTable != null) {
+            migrationStep();
+        }
+        cursorOpened = true;
+        return new OrderBucketSpliterator(table, null, size, Spliterator.NONNULL | Spliterator.DISTINCT);
+    }
+
     public int getSize() {
         return size;
     }
+
+    /**
+     * Take a consistent point-in-time view of all orders.
+     * Only the bucket arrays are copied; chains and orders are shared, and
+     * writers copy whatever they touch for as long as the snapshot is open.
+     * The snapshot must be closed to stop that copying and release memory.
+     *
+     * @return OrderTableSnapshot
+     */
+    public OrderTableSnapshot snapshot() {
+        OrderTableSnapshot snapshot = new OrderTableSnapshot(this, hashStrategy,
+                table.clone(), oldTable == null ? null : oldTable.clone(), size);
+        version++;
+        openSnapshots.incrementAndGet();
+        return snapshot;
+    }
+
+    /**
+     * Called by OrderTableSnapshot.close(), from any thread
+     */
+    void releaseSnapshot() {
+        openSnapshots.decrementAndGet();
+    }
+
+    /**
+     * Collect bucket distribution telemetry.
+     * Scans every bucket, so it costs O(capacity).
+     *
+     * @return OrderTableStats snapshot
+     */
+    public OrderTableStats getStats() {
+        int[] histogram = new int[8];
+        int longestChain = 0;
+        OrderNode[][] tables = oldTable == null ? new OrderNode[][]{table} : new OrderNode[][]{table, oldTable};
+
+        for (OrderNode[] buckets : tables) {
+            for (OrderNode bucket : buckets) {
+                int length = 0;
+                for (OrderNode current = bucket; current != null; current = current.next) {
+                    length++;
+                }
+                if (length >= histogram.length) {
+                    histogram = Arrays.copyOf(histogram, Math.max(length + 1, histogram.length * 2));
+                }
+                histogram[length]++;
+                longestChain = Math.max(longestChain, length);
+            }
+        }
+
+        return new OrderTableStats(hashStrategy, capacity, size,
+                Arrays.copyOf(histogram, longestChain + 1), resizeCount, oldTable != null);
+    }
 }
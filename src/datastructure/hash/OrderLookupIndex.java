@@ -0,0 +1,83 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Secondary index of orders grouped by an immutable order attribute,
+ * such as customer name or product ID.
+ * Orders of one attribute value are kept sorted by key, so pages can be
+ * fetched with keyset pagination in time proportional to the page size.
+ */
+class OrderLookupIndex {
+    private Function<Order, String> attribute;
+    private Map<String, NavigableMap<String, Order>> ordersByValue;
+
+    OrderLookupIndex(Function<Order, String> attribute) {
+        this.attribute = attribute;
+        this.ordersByValue = new HashMap<>();
+    }
+
+    /**
+     * @param key
+     * @param order
+     */
+    void add(String key, Order order) {
+        ordersByValue.computeIfAbsent(attribute.apply(order), v -> new TreeMap<>()).put(key, order);
+    }
+
+    /**
+     * @param key
+     * @param order order that was indexed under this key
+     */
+    void remove(String key, Order order) {
+        String value = attribute.apply(order);
+        NavigableMap<String, Order> orders = ordersByValue.get(value);
+        if (orders == null)
+            return;
+
+        orders.remove(key);
+        if (orders.isEmpty()) {
+            ordersByValue.remove(value);
+        }
+    }
+
+    /**
+     * Retrieve one page of orders matching an attribute value.
+     *
+     * @param value
+     * @param afterKey last key of the previous page, or null for the first page
+     * @param limit maximum number of orders to return
+     * @return List of matching orders sorted by key
+     */
+    List<Order> get(String value, String afterKey, int limit) {
+        List<Order> result = new ArrayList<>();
+        NavigableMap<String, Order> orders = ordersByValue.get(value);
+        if (orders == null)
+            return result;
+
+        NavigableMap<String, Order> page = afterKey == null ? orders : orders.tailMap(afterKey, false);
+        for (Order order : page.values()) {
+            if (result.size() >= limit)
+                break;
+            result.add(order);
+        }
+        return result;
+    }
+
+    /**
+     * @param value
+     * @return number of orders matching an attribute value
+     */
+    int count(String value) {
+        NavigableMap<String, Order> orders = ordersByValue.get(value);
+        return orders == null ? 0 : orders.size();
+    }
+}
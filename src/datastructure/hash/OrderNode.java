@@ -6,9 +6,15 @@ class OrderNode {
     String key;
     Order value;
     OrderNode next;
+    /**
+     * Table version the node was created in, used to detect nodes
+     * that are shared with an open snapshot
+     */
+    int version;
 
-    public OrderNode(String key, Order value) {
+    public OrderNode(String key, Order value, int version) {
         this.key = key;
         this.value = value;
+        this.version = version;
     }
 }
@@ -0,0 +1,290 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Open-addressing order table keyed by the numeric part of "ORD" + number order IDs.
+ * Keys and values are stored in flat parallel arrays and collisions are resolved
+ * with Robin Hood linear probing, so lookups never allocate or chase chain nodes.
+ * Keys that do not follow the "ORD" + number format fall back to a chained table.
+ */
+public class OrderOpenHashTable implements OrderStore {
+    static final String KEY_PREFIX = "ORD";
+    private static final int MAX_KEY_DIGITS = 18;
+    private static final long EMPTY = -1L;
+    private static final double LOAD_FACTOR = 0.75;
+
+    private long[] keys;
+    private Order[] values;
+    private int capacity;
+    private int shift;
+    private int size;
+    private OrderHashTable fallback;
+
+    public OrderOpenHashTable() {
+        this(16);
+    }
+
+    public OrderOpenHashTable(int expectedSize) {
+        int initialCapacity = 16;
+        while (initialCapacity * LOAD_FACTOR < expectedSize) {
+            initialCapacity *= 2;
+        }
+        allocate(initialCapacity);
+        this.size = 0;
+        this.fallback = new OrderHashTable();
+    }
+
+    /**
+     * Parse the numeric part of an order ID.
+     * Only the canonical form "ORD" + number (no sign, no leading zeros) is accepted,
+     * so that every numeric key maps back to exactly one order ID string.
+     *
+     * @param key
+     * @return numeric key, or -1 if the key is not in canonical form
+     */
+    static long parseKey(String key) {
+        int digits = key.length() - KEY_PREFIX.length();
+        if (!key.startsWith(KEY_PREFIX) || digits <= 0 || digits > MAX_KEY_DIGITS) {
+            return EMPTY;
+        }
+        if (key.charAt(KEY_PREFIX.length()) == '0' && digits > 1) {
+            return EMPTY;
+        }
+
+        long number = 0;
+        for (int i = KEY_PREFIX.length(); i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        shift = 64 - Integer.numberOfTrailingZeros(newCapacity);
+        keys = new long[newCapacity];
+        values = new Order[newCapacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Home slot of a numeric key using Fibonacci hashing.
+     *
+     * @param key
+     * @return slot index in the table
+     */
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Distance of the key stored at slot from its home slot.
+     *
+     * @param key
+     * @param slot
+     * @return probe distance
+     */
+    private int probeDistance(long key, int slot) {
+        return (slot - home(key)) & (capacity - 1);
+    }
+
+    /**
+     * Double the capacity and reinsert every numeric entry
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        Order[] oldValues = values;
+        allocate(capacity * 2);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                putNumeric(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Find the slot holding a numeric key.
+     *
+     * @param key
+     * @return slot index or -1 if not found
+     */
+    private int findSlot(long key) {
+        int mask = capacity - 1;
+        int slot = home(key);
+        int distance = 0;
+
+        while (true) {
+            long current = keys[slot];
+            if (current == EMPTY) {
+                return -1;
+            }
+            if (current == key) {
+                return slot;
+            }
+            /**
+             * Robin Hood invariant: once we pass an entry closer to its home
+             * than we are to ours, the key cannot be further along
+             */
+            if (probeDistance(current, slot) < distance) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+    }
+
+    private void putNumeric(long key, Order value) {
+        if (size + 1 > capacity * LOAD_FACTOR) {
+            resize();
+        }
+
+        int mask = capacity - 1;
+        int slot = home(key);
+        int distance = 0;
+
+        while (true) {
+            long current = keys[slot];
+            if (current == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+            if (current == key) {
+                values[slot] = value;
+                return;
+            }
+
+            /**
+             * Take the slot from an entry that is closer to its home
+             * and carry the displaced entry forward
+             */
+            int currentDistance = probeDistance(current, slot);
+            if (currentDistance < distance) {
+                Order displacedValue = values[slot];
+                keys[slot] = key;
+                values[slot] = value;
+                key = current;
+                value = displacedValue;
+                distance = currentDistance;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+    }
+
+    @Override
+    public void put(String key, Order value) {
+        long numericKey = parseKey(key);
+        if (numericKey == EMPTY) {
+            fallback.put(key, value);
+            return;
+        }
+        putNumeric(numericKey, value);
+    }
+
+    @Override
+    public Order get(String key) {
+        long numericKey = parseKey(key);
+        if (numericKey == EMPTY) {
+            return fallback.get(key);
+        }
+        int slot = findSlot(numericKey);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public boolean remove(String key) {
+        long numericKey = parseKey(key);
+        if (numericKey == EMPTY) {
+            return fallback.remove(key);
+        }
+
+        int slot = findSlot(numericKey);
+        if (slot < 0) {
+            return false;
+        }
+
+        /**
+         * Backward-shift deletion: pull following entries one slot back
+         * until an empty slot or an entry already at its home
+         */
+        int mask = capacity - 1;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY && probeDistance(keys[next], next) > 0) {
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        values[slot] = null;
+        size--;
+        return true;
+    }
+
+    @Override
+    public List<Order> getAllOrders() {
+        List<Order> orders = fallback.getAllOrders();
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != EMPTY) {
+                orders.add(values[i]);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Iterate numeric slots in place, then the fallback table.
+     *
+     * @return Iterator over all orders
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<Order>() {
+            private int slot = nextSlot(0);
+            private Iterator<Order> fallbackOrders = fallback.iterator();
+
+            private int nextSlot(int from) {
+                while (from < keys.length && keys[from] == EMPTY) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < keys.length || fallbackOrders.hasNext();
+            }
+
+            @Override
+            public Order next() {
+                if (slot < keys.length) {
+                    Order value = values[slot];
+                    slot = nextSlot(slot + 1);
+                    return value;
+                }
+                if (!fallbackOrders.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return fallbackOrders.next();
+            }
+        };
+    }
+
+    @Override
+    public int getSize() {
+        return size + fallback.getSize();
+    }
+}
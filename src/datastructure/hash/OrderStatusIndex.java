@@ -0,0 +1,89 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary index of orders grouped by status.
+ * Each status keeps its own insertion-ordered map, so listing a status
+ * costs time proportional to its orders and a transition is O(1).
+ */
+class OrderStatusIndex {
+    private Map<String, Map<String, Order>> ordersByStatus;
+    private Map<String, String> statusByKey;
+
+    OrderStatusIndex() {
+        this.ordersByStatus = new HashMap<>();
+        this.statusByKey = new HashMap<>();
+    }
+
+    /**
+     * Index an order under its current status.
+     *
+     * @param key
+     * @param order
+     */
+    void add(String key, Order order) {
+        String status = order.getStatus();
+        ordersByStatus.computeIfAbsent(status, s -> new LinkedHashMap<>()).put(key, order);
+        statusByKey.put(key, status);
+    }
+
+    /**
+     * Remove an order from the index.
+     * The status it was filed under is remembered, so this works
+     * even if the order object was changed in the meantime.
+     *
+     * @param key
+     */
+    void remove(String key) {
+        String status = statusByKey.remove(key);
+        if (status == null)
+            return;
+
+        Map<String, Order> orders = ordersByStatus.get(status);
+        orders.remove(key);
+        if (orders.isEmpty()) {
+            ordersByStatus.remove(status);
+        }
+    }
+
+    /**
+     * Re-index an order after a status transition.
+     *
+     * @param key
+     * @param order
+     */
+    void move(String key, Order order) {
+        remove(key);
+        add(key, order);
+    }
+
+    /**
+     * @param status
+     * @return List of orders with the given status
+     */
+    List<Order> get(String status) {
+        Map<String, Order> orders = ordersByStatus.get(status);
+        if (orders == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(orders.values());
+    }
+
+    /**
+     * @return Map of status to number of orders with that status
+     */
+    Map<String, Integer> counts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, Map<String, Order>> entry : ordersByStatus.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().size());
+        }
+        return counts;
+    }
+}
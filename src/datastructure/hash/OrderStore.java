@@ -0,0 +1,49 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Common contract for key-value stores of orders keyed by order ID.
+ * Iterating a store visits every order in place, without copying.
+ */
+public interface OrderStore extends Iterable<Order> {
+    /**
+     * Insert or update an order.
+     *
+     * @param key
+     * @param value
+     */
+    void put(String key, Order value);
+
+    /**
+     * Retrieve an order by key.
+     *
+     * @param key
+     * @return Order object or null if not found
+     */
+    Order get(String key);
+
+    /**
+     * Remove an order by key.
+     *
+     * @param key
+     * @return true if removed, false if not found
+     */
+    boolean remove(String key);
+
+    List<Order> getAllOrders();
+
+    int getSize();
+
+    default Stream<Order> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    default Stream<Order> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+}
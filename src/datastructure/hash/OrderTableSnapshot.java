@@ -0,0 +1,107 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Read-only point-in-time view of an OrderHashTable.
+ * It keeps its own copy of the bucket arrays, and the table copies any
+ * shared chain or order before changing it, so the view never changes.
+ * Once taken it can be read from any thread while writers continue.
+ */
+public class OrderTableSnapshot implements Iterable<Order>, AutoCloseable {
+    private OrderHashTable owner;
+    private OrderHashStrategy hashStrategy;
+    private OrderNode[] table;
+    private OrderNode[] oldTable;
+    private int size;
+
+    OrderTableSnapshot(OrderHashTable owner, OrderHashStrategy hashStrategy,
+                       OrderNode[] table, OrderNode[] oldTable, int size) {
+        this.owner = owner;
+        this.hashStrategy = hashStrategy;
+        this.table = table;
+        this.oldTable = oldTable;
+        this.size = size;
+    }
+
+    private void ensureOpen() {
+        if (table == null) {
+            throw new IllegalStateException("Snapshot sudah ditutup");
+        }
+    }
+
+    private static Order findIn(OrderNode[] buckets, int index, String key) {
+        for (OrderNode current = buckets[index]; current != null; current = current.next) {
+            if (current.key.equals(key)) {
+                return current.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve an order as it was when the snapshot was taken.
+     *
+     * @param key
+     * @return Order object or null if not found
+     */
+    public Order get(String key) {
+        ensureOpen();
+        Order order = findIn(table, hashStrategy.index(key, table.length), key);
+        if (order == null && oldTable != null) {
+            order = findIn(oldTable, hashStrategy.index(key, oldTable.length), key);
+        }
+        return order;
+    }
+
+    public int getSize() {
+        ensureOpen();
+        return size;
+    }
+
+    public List<Order> getAllOrders() {
+        List<Order> orders = new ArrayList<>(size);
+        forEach(orders::add);
+        return orders;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Order> action) {
+        spliterator().forEachRemaining(action);
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    @Override
+    public Spliterator<Order> spliterator() {
+        ensureOpen();
+        return new OrderBucketSpliterator(table, oldTable, size,
+                Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Release the snapshot so writers stop copying on its behalf
+     * and the nodes only it references can be reclaimed.
+     * Any thread may close it; closing twice has no further effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (table == null)
+            return;
+
+        table = null;
+        oldTable = null;
+        owner.releaseSnapshot();
+        owner = null;
+    }
+}
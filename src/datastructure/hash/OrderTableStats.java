@@ -0,0 +1,78 @@
+package datastructure.hash;
+
+/**
+ * Point-in-time telemetry of an OrderHashTable's bucket distribution.
+ */
+public class OrderTableStats {
+    private OrderHashStrategy strategy;
+    private int capacity;
+    private int size;
+    private int[] chainLengthHistogram;
+    private int resizeCount;
+    private boolean resizing;
+
+    OrderTableStats(OrderHashStrategy strategy, int capacity, int size,
+                    int[] chainLengthHistogram, int resizeCount, boolean resizing) {
+        this.strategy = strategy;
+        this.capacity = capacity;
+        this.size = size;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.resizeCount = resizeCount;
+        this.resizing = resizing;
+    }
+
+    public OrderHashStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getLoadFactor() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * @return number of buckets per chain length, indexed by chain length
+     */
+    public int[] getChainLengthHistogram() {
+        return chainLengthHistogram.clone();
+    }
+
+    public int getLongestChain() {
+        return chainLengthHistogram.length - 1;
+    }
+
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * @return true if an incremental resize was in progress
+     */
+    public boolean isResizing() {
+        return resizing;
+    }
+
+    public void displayInfo() {
+        StringBuilder histogram = new StringBuilder();
+        for (int length = 0; length < chainLengthHistogram.length; length++) {
+            if (chainLengthHistogram[length] > 0) {
+                histogram.append(length).append(':').append(chainLengthHistogram[length]).append(' ');
+            }
+        }
+
+        System.out.println("┌─ HASH TABLE PESANAN");
+        System.out.println("├─ Hash Strategy      : " + strategy);
+        System.out.println("├─ Kapasitas          : " + capacity + (resizing ? " (resize berjalan)" : ""));
+        System.out.println("├─ Load Factor        : " + String.format("%.2f", getLoadFactor()));
+        System.out.println("├─ Chain Terpanjang   : " + getLongestChain());
+        System.out.println("├─ Distribusi Chain   : " + histogram.toString().trim());
+        System.out.println("└─ Jumlah Resize      : " + resizeCount);
+    }
+}
@@ -0,0 +1,92 @@
+package datastructure.hash;
+
+import models.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary index of orders sorted by order time.
+ * Backed by a lock-free skip list, so new orders are appended without
+ * locking and a range query costs O(log n + k).
+ */
+class OrderTimeIndex {
+    /**
+     * Orders placed at the same instant are told apart by their key
+     */
+    private static final class TimeKey implements Comparable<TimeKey> {
+        final LocalDateTime time;
+        final String key;
+
+        TimeKey(LocalDateTime time, String key) {
+            this.time = time;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : key.compareTo(other.key);
+        }
+    }
+
+    private ConcurrentSkipListMap<TimeKey, Order> ordersByTime;
+
+    OrderTimeIndex() {
+        this.ordersByTime = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * @param key
+     * @param order
+     */
+    void add(String key, Order order) {
+        ordersByTime.put(new TimeKey(order.getOrderTime(), key), order);
+    }
+
+    /**
+     * @param key
+     * @param order order that was indexed under this key
+     */
+    void remove(String key, Order order) {
+        ordersByTime.remove(new TimeKey(order.getOrderTime(), key));
+    }
+
+    /**
+     * Streaming cursor over orders placed in [from, to), oldest first.
+     * The cursor is weakly consistent with concurrent writes.
+     *
+     * @param from inclusive
+     * @param to exclusive
+     * @return Iterator over matching orders, empty if from is not before to
+     */
+    Iterator<Order> cursor(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to))
+            return Collections.emptyIterator();
+
+        /**
+         * The empty string sorts before every key, so these bounds
+         * cover every order from "from" up to but excluding "to"
+         */
+        return ordersByTime.subMap(new TimeKey(from, ""), true, new TimeKey(to, ""), false)
+                .values().iterator();
+    }
+
+    /**
+     * @param from inclusive
+     * @param to exclusive
+     * @return List of orders placed in [from, to), oldest first
+     */
+    List<Order> between(LocalDateTime from, LocalDateTime to) {
+        List<Order> result = new ArrayList<>();
+        Iterator<Order> cursor = cursor(from, to);
+        while (cursor.hasNext()) {
+            result.add(cursor.next());
+        }
+        return result;
+    }
+}
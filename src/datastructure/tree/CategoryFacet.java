@@ -0,0 +1,34 @@
+package datastructure.tree;
+
+/**
+ * Running counts of one product category in the catalog.
+ */
+public class CategoryFacet {
+    private String category;
+    private int productCount;
+    private long totalStock;
+    private double inventoryValue;
+
+    CategoryFacet(String category, int productCount, long totalStock, double inventoryValue) {
+        this.category = category;
+        this.productCount = productCount;
+        this.totalStock = totalStock;
+        this.inventoryValue = inventoryValue;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public long getTotalStock() {
+        return totalStock;
+    }
+
+    public double getInventoryValue() {
+        return inventoryValue;
+    }
+}
@@ -0,0 +1,196 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe product catalog for multi-threaded order intake.
+ * Lookups by ID run as optimistic reads that take no lock and only retry
+ * under a read lock if a writer interfered. Structural changes take the
+ * write lock. Stock reservations share the read lock: the stock itself is
+ * taken with a compare-and-set on the product and the aggregates are updated
+ * with atomic adds, so orders run in parallel and never invalidate
+ * optimistic readers, while inserts, deletes and price changes, which
+ * recompute the aggregates, wait until no reservation is half-applied.
+ */
+public class ConcurrentProductCatalog implements ProductCatalog {
+    private final ProductBST tree = new ProductBST();
+    private final StampedLock lock = new StampedLock();
+
+    @Override
+    public Product search(String id) {
+        /**
+         * Lookups go through the immutable ID index and the concurrent delta
+         * map, never the tree nodes, so a racing writer cannot break the read.
+         * It can only make it stale, which the stamp check catches.
+         */
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Product product = tree.search(id);
+            if (lock.validate(stamp))
+                return product;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return tree.search(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void insert(Product product) {
+        long stamp = lock.writeLock();
+        try {
+            tree.insert(product);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean delete(String id) {
+        long stamp = lock.writeLock();
+        try {
+            return tree.delete(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean updatePrice(String id, double newPrice) {
+        long stamp = lock.writeLock();
+        try {
+            return tree.updatePrice(id, newPrice);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean updateStock(String id, int newStock) {
+        long stamp = lock.writeLock();
+        try {
+            return tree.updateStock(id, newStock);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically take units from the stock of a product.
+     * Runs under the shared read lock, so reservations do not wait for each
+     * other; the compare-and-set on the product decides which order gets the
+     * last units. A delete cannot run between the reservation and its
+     * aggregate update, so it always removes the stock the aggregates hold.
+     *
+     * @param id
+     * @param quantity
+     * @return true if reserved, false if not found or quantity is not positive
+     *         or stock is insufficient
+     */
+    public boolean tryReserveStock(String id, int quantity) {
+        long stamp = lock.readLock();
+        try {
+            return tree.tryReserveStock(id, quantity);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Return units to the stock of a product.
+     *
+     * @param id
+     * @param quantity
+     * @return true if released, false if not found
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public boolean releaseStock(String id, int quantity) {
+        long stamp = lock.readLock();
+        try {
+            return tree.releaseStock(id, quantity);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Product> searchInRange(double minPrice, double maxPrice) {
+        long stamp = lock.readLock();
+        try {
+            return tree.searchInRange(minPrice, maxPrice);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<Product> getProducts(String afterId, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return tree.getProducts(afterId, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long getTotalStock() {
+        long stamp = lock.readLock();
+        try {
+            return tree.getTotalStock();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return counts of every category, ordered by category name
+     */
+    public List<CategoryFacet> getCategoryFacets() {
+        long stamp = lock.readLock();
+        try {
+            return tree.getCategoryFacets();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Iterate a copy of the catalog taken under the read lock,
+     * so iteration never blocks or fails on concurrent writes.
+     *
+     * @return Iterator over the products at the time of the call
+     */
+    @Override
+    public Iterator<Product> iterator() {
+        List<Product> products = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            tree.inOrderTraversal(products);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return products.iterator();
+    }
+
+    @Override
+    public int getSize() {
+        long stamp = lock.tryOptimisticRead();
+        int size = tree.getSize();
+        if (lock.validate(stamp))
+            return size;
+
+        stamp = lock.readLock();
+        try {
+            return tree.getSize();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
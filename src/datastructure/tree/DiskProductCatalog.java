@@ -0,0 +1,830 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Product catalog stored as a B+tree in a memory-mapped file.
+ * The file is a sequence of 4 KB pages: a header page, internal pages
+ * holding ID separators and child page numbers, and leaf pages holding
+ * fixed-size product records sorted by ID. Leaves are linked both ways,
+ * so scans read pages in key order without going back up the tree.
+ * Opening a catalog only maps the file, the OS pages it in on demand,
+ * so catalogs larger than the heap work and startup does not rebuild anything.
+ * <p>
+ * Product objects are materialized when read, so changes to a returned
+ * Product are not written back; use updateStock or updatePrice.
+ * IDs are ordered by their UTF-8 bytes, which is String order for ASCII IDs.
+ * Only ID lookups and ID-ordered scans use the tree, price ranges scan all leaves.
+ * Deletes free emptied pages but do not merge half-empty ones.
+ * Writes reach the file when the OS flushes the mapping or on flush/close,
+ * there is no journal, so a crash mid-write can leave the file inconsistent.
+ */
+public class DiskProductCatalog implements ProductCatalog, AutoCloseable {
+    private static final int PAGE_SIZE = 4096;
+    /**
+     * The file is mapped in segments of this many pages as it grows
+     */
+    private static final int SEGMENT_PAGES = 2048;
+    private static final long SEGMENT_BYTES = (long) PAGE_SIZE * SEGMENT_PAGES;
+    private static final int MAGIC = 0x50524F44;
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * Page 0 is the header, so it doubles as the null page number
+     */
+    private static final int NO_PAGE = 0;
+
+    /**
+     * Header page layout
+     */
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_ROOT = 8;
+    private static final int HEADER_PAGE_COUNT = 12;
+    private static final int HEADER_SIZE = 16;
+    private static final int HEADER_FREE_PAGE = 20;
+    private static final int HEADER_HEIGHT = 24;
+
+    /**
+     * Common page header, next and prev link leaves or chain free pages
+     */
+    private static final byte FREE_PAGE = 0;
+    private static final byte LEAF_PAGE = 1;
+    private static final byte INTERNAL_PAGE = 2;
+    private static final int PAGE_TYPE = 0;
+    private static final int PAGE_COUNT = 2;
+    private static final int PAGE_NEXT = 4;
+    private static final int PAGE_PREV = 8;
+    private static final int PAGE_HEADER = 16;
+
+    /**
+     * Leaf record layout, strings are a 2-byte length plus fixed room
+     */
+    private static final int ID_BYTES = 16;
+    private static final int NAME_BYTES = 96;
+    private static final int CATEGORY_BYTES = 32;
+    private static final int RECORD_ID = 0;
+    private static final int RECORD_NAME = RECORD_ID + 2 + ID_BYTES;
+    private static final int RECORD_CATEGORY = RECORD_NAME + 2 + NAME_BYTES;
+    private static final int RECORD_PRICE = RECORD_CATEGORY + 2 + CATEGORY_BYTES;
+    private static final int RECORD_STOCK = RECORD_PRICE + Double.BYTES;
+    private static final int RECORD_SIZE = RECORD_STOCK + Integer.BYTES;
+    private static final int LEAF_CAPACITY = (PAGE_SIZE - PAGE_HEADER) / RECORD_SIZE;
+
+    /**
+     * Internal page layout: count + 1 child page numbers, then count keys
+     */
+    private static final int KEY_SIZE = 2 + ID_BYTES;
+    private static final int INTERNAL_CAPACITY = (PAGE_SIZE - PAGE_HEADER - Integer.BYTES) / (KEY_SIZE + Integer.BYTES);
+    private static final int CHILDREN = PAGE_HEADER;
+    private static final int KEYS = CHILDREN + Integer.BYTES * (INTERNAL_CAPACITY + 1);
+
+    private static final Comparator<Product> BY_PRICE =
+            Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getId);
+
+    private FileChannel channel;
+    private List<MappedByteBuffer> segments = new ArrayList<>();
+    private int root;
+    private int pageCount;
+    private int size;
+    private int freePage;
+    private int height;
+    private byte[] scratch = new byte[PAGE_SIZE];
+
+    /**
+     * Open a catalog file, creating an empty catalog if it does not exist.
+     *
+     * @param path
+     * @throws IOException if the file cannot be mapped or is not a catalog
+     */
+    public DiskProductCatalog(String path) throws IOException {
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            mapSegment();
+            pageCount = 1;
+            height = 1;
+            root = allocatePage(LEAF_PAGE);
+            writeHeader();
+            return;
+        }
+
+        /**
+         * Validate the header with a plain read before mapping anything,
+         * mapping would grow any other file to a whole segment
+         */
+        ByteBuffer header = ByteBuffer.allocate(HEADER_HEIGHT + Integer.BYTES);
+        if (channel.size() < PAGE_SIZE || channel.read(header, 0) < header.capacity()
+                || header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Bukan file katalog produk: " + path);
+        }
+
+        mapSegment();
+        root = header.getInt(HEADER_ROOT);
+        pageCount = header.getInt(HEADER_PAGE_COUNT);
+        size = header.getInt(HEADER_SIZE);
+        freePage = header.getInt(HEADER_FREE_PAGE);
+        height = header.getInt(HEADER_HEIGHT);
+        while ((long) segments.size() * SEGMENT_PAGES < pageCount) {
+            mapSegment();
+        }
+    }
+
+    private void mapSegment() throws IOException {
+        long position = segments.size() * SEGMENT_BYTES;
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, SEGMENT_BYTES));
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = segments.get(0);
+        header.putInt(HEADER_MAGIC, MAGIC);
+        header.putInt(HEADER_VERSION, FORMAT_VERSION);
+        header.putInt(HEADER_ROOT, root);
+        header.putInt(HEADER_PAGE_COUNT, pageCount);
+        header.putInt(HEADER_SIZE, size);
+        header.putInt(HEADER_FREE_PAGE, freePage);
+        header.putInt(HEADER_HEIGHT, height);
+    }
+
+    private ByteBuffer segment(int page) {
+        return segments.get(page / SEGMENT_PAGES);
+    }
+
+    private static int base(int page) {
+        return (page % SEGMENT_PAGES) * PAGE_SIZE;
+    }
+
+    private int count(int page) {
+        return segment(page).getShort(base(page) + PAGE_COUNT);
+    }
+
+    private void setCount(int page, int count) {
+        segment(page).putShort(base(page) + PAGE_COUNT, (short) count);
+    }
+
+    private int getInt(int page, int at) {
+        return segment(page).getInt(base(page) + at);
+    }
+
+    private void putInt(int page, int at, int value) {
+        segment(page).putInt(base(page) + at, value);
+    }
+
+    private static int recordAt(int slot) {
+        return PAGE_HEADER + slot * RECORD_SIZE;
+    }
+
+    private static int keyAt(int slot) {
+        return KEYS + slot * KEY_SIZE;
+    }
+
+    private static int childAt(int slot) {
+        return CHILDREN + slot * Integer.BYTES;
+    }
+
+    /**
+     * Copy bytes through a scratch buffer, so overlapping ranges are safe.
+     */
+    private void copy(int fromPage, int from, int toPage, int to, int length) {
+        segment(fromPage).get(base(fromPage) + from, scratch, 0, length);
+        segment(toPage).put(base(toPage) + to, scratch, 0, length);
+    }
+
+    private void putString(int page, int at, byte[] bytes) {
+        ByteBuffer buffer = segment(page);
+        buffer.putShort(base(page) + at, (short) bytes.length);
+        buffer.put(base(page) + at + 2, bytes);
+    }
+
+    private byte[] getBytes(int page, int at) {
+        ByteBuffer buffer = segment(page);
+        byte[] bytes = new byte[buffer.getShort(base(page) + at)];
+        buffer.get(base(page) + at + 2, bytes);
+        return bytes;
+    }
+
+    private String getString(int page, int at) {
+        return new String(getBytes(page, at), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare a stored string with a key byte by byte, unsigned.
+     *
+     * @param page
+     * @param at
+     * @param key
+     * @return negative, zero or positive as the stored string is below, equal or above the key
+     */
+    private int compareAt(int page, int at, byte[] key) {
+        ByteBuffer buffer = segment(page);
+        int offset = base(page) + at;
+        int length = buffer.getShort(offset);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (buffer.get(offset + 2 + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0)
+                return cmp;
+        }
+        return length - key.length;
+    }
+
+    private static byte[] encode(String value, int maxBytes, String field) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException(field + " produk maksimal " + maxBytes + " byte: " + value);
+        }
+        return bytes;
+    }
+
+    /**
+     * Take a page from the free list, or append one to the file.
+     *
+     * @param type
+     * @return page number
+     */
+    private int allocatePage(byte type) {
+        int page;
+        if (freePage != NO_PAGE) {
+            page = freePage;
+            freePage = getInt(page, PAGE_NEXT);
+        } else {
+            page = pageCount++;
+            if (page >= segments.size() * SEGMENT_PAGES) {
+                try {
+                    mapSegment();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        ByteBuffer buffer = segment(page);
+        buffer.put(base(page) + PAGE_TYPE, type);
+        setCount(page, 0);
+        putInt(page, PAGE_NEXT, NO_PAGE);
+        putInt(page, PAGE_PREV, NO_PAGE);
+        return page;
+    }
+
+    private void releasePage(int page) {
+        segment(page).put(base(page) + PAGE_TYPE, FREE_PAGE);
+        putInt(page, PAGE_NEXT, freePage);
+        freePage = page;
+    }
+
+    /**
+     * Binary search a leaf for a key.
+     *
+     * @param leaf
+     * @param key
+     * @return slot of the key, or -(insertion point) - 1 if absent
+     */
+    private int searchLeaf(int leaf, byte[] key) {
+        int low = 0;
+        int high = count(leaf) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareAt(leaf, recordAt(mid) + RECORD_ID, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @param page internal page
+     * @param key
+     * @return slot of the child whose subtree can hold the key
+     */
+    private int searchInternal(int page, byte[] key) {
+        int low = 0;
+        int high = count(page);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareAt(page, keyAt(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Walk from the root to the leaf that can hold a key.
+     *
+     * @param key
+     * @param pages internal pages on the way down, or null
+     * @param slots child slot taken in each of those pages, or null
+     * @return leaf page
+     */
+    private int descend(byte[] key, int[] pages, int[] slots) {
+        int page = root;
+        for (int level = 0; level < height - 1; level++) {
+            int slot = searchInternal(page, key);
+            if (pages != null) {
+                pages[level] = page;
+                slots[level] = slot;
+            }
+            page = getInt(page, childAt(slot));
+        }
+        return page;
+    }
+
+    private int firstLeaf() {
+        int page = root;
+        for (int level = 0; level < height - 1; level++) {
+            page = getInt(page, childAt(0));
+        }
+        return page;
+    }
+
+    private Product readProduct(int leaf, int slot) {
+        int record = recordAt(slot);
+        ByteBuffer buffer = segment(leaf);
+        return new Product(getString(leaf, record + RECORD_ID),
+                getString(leaf, record + RECORD_NAME),
+                getString(leaf, record + RECORD_CATEGORY),
+                buffer.getDouble(base(leaf) + record + RECORD_PRICE),
+                buffer.getInt(base(leaf) + record + RECORD_STOCK));
+    }
+
+    @Override
+    public Product search(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        if (key.length > ID_BYTES)
+            return null;
+
+        int leaf = descend(key, null, null);
+        int slot = searchLeaf(leaf, key);
+        return slot < 0 ? null : readProduct(leaf, slot);
+    }
+
+    /**
+     * Insert a product. Products with an ID that already exists are ignored.
+     *
+     * @param product
+     * @throws IllegalArgumentException if a string field does not fit its record slot
+     */
+    @Override
+    public void insert(Product product) {
+        byte[] key = encode(product.getId(), ID_BYTES, "ID");
+        byte[] name = encode(product.getName(), NAME_BYTES, "Nama");
+        byte[] category = encode(product.getCategory(), CATEGORY_BYTES, "Kategori");
+
+        int[] pages = new int[height];
+        int[] slots = new int[height];
+        int leaf = descend(key, pages, slots);
+        int slot = searchLeaf(leaf, key);
+        if (slot >= 0)
+            return;
+        slot = -slot - 1;
+
+        int count = count(leaf);
+        if (count < LEAF_CAPACITY) {
+            insertRecord(leaf, slot, key, name, category, product);
+        } else {
+            int right = splitLeaf(leaf, slot == count);
+            int leftCount = count(leaf);
+            if (slot < leftCount) {
+                insertRecord(leaf, slot, key, name, category, product);
+            } else {
+                insertRecord(right, slot - leftCount, key, name, category, product);
+            }
+            insertSeparator(pages, slots, height - 2, getBytes(right, recordAt(0) + RECORD_ID), right);
+        }
+
+        size++;
+        writeHeader();
+    }
+
+    private void insertRecord(int leaf, int slot, byte[] key, byte[] name, byte[] category, Product product) {
+        int count = count(leaf);
+        copy(leaf, recordAt(slot), leaf, recordAt(slot + 1), (count - slot) * RECORD_SIZE);
+
+        int record = recordAt(slot);
+        putString(leaf, record + RECORD_ID, key);
+        putString(leaf, record + RECORD_NAME, name);
+        putString(leaf, record + RECORD_CATEGORY, category);
+        segment(leaf).putDouble(base(leaf) + record + RECORD_PRICE, product.getPrice());
+        putInt(leaf, record + RECORD_STOCK, product.getStock());
+        setCount(leaf, count + 1);
+    }
+
+    /**
+     * Move the upper half of a full leaf into a new right sibling.
+     * When the insert goes past the end, as with ascending IDs,
+     * the leaf is left full and the new sibling starts empty.
+     *
+     * @param leaf
+     * @param append
+     * @return new right sibling
+     */
+    private int splitLeaf(int leaf, boolean append) {
+        int count = count(leaf);
+        int moved = append ? 0 : count / 2;
+        int right = allocatePage(LEAF_PAGE);
+
+        copy(leaf, recordAt(count - moved), right, recordAt(0), moved * RECORD_SIZE);
+        setCount(right, moved);
+        setCount(leaf, count - moved);
+
+        int next = getInt(leaf, PAGE_NEXT);
+        putInt(right, PAGE_NEXT, next);
+        putInt(right, PAGE_PREV, leaf);
+        putInt(leaf, PAGE_NEXT, right);
+        if (next != NO_PAGE) {
+            putInt(next, PAGE_PREV, right);
+        }
+        return right;
+    }
+
+    /**
+     * Add a separator and its right child to the parent of a split page,
+     * splitting full internal pages up to a new root if needed.
+     *
+     * @param pages
+     * @param slots
+     * @param level level of the parent in the recorded path
+     * @param key
+     * @param right
+     */
+    private void insertSeparator(int[] pages, int[] slots, int level, byte[] key, int right) {
+        while (level >= 0) {
+            int page = pages[level];
+            int slot = slots[level];
+            int count = count(page);
+
+            if (count < INTERNAL_CAPACITY) {
+                copy(page, keyAt(slot), page, keyAt(slot + 1), (count - slot) * KEY_SIZE);
+                copy(page, childAt(slot + 1), page, childAt(slot + 2), (count - slot) * Integer.BYTES);
+                putString(page, keyAt(slot), key);
+                putInt(page, childAt(slot + 1), right);
+                setCount(page, count + 1);
+                return;
+            }
+
+            /**
+             * Lay out the full page plus the new entry, keep the lower half,
+             * move the upper half to a new page and push the middle key up
+             */
+            byte[][] keys = new byte[count + 1][];
+            int[] children = new int[count + 2];
+            for (int i = 0, j = 0; i <= count; i++) {
+                keys[i] = i == slot ? key : getBytes(page, keyAt(j++));
+            }
+            for (int i = 0, j = 0; i <= count + 1; i++) {
+                children[i] = i == slot + 1 ? right : getInt(page, childAt(j++));
+            }
+
+            int mid = (count + 1) / 2;
+            int sibling = allocatePage(INTERNAL_PAGE);
+            writeInternal(page, keys, children, 0, mid);
+            writeInternal(sibling, keys, children, mid + 1, count + 1);
+
+            key = keys[mid];
+            right = sibling;
+            level--;
+        }
+
+        int newRoot = allocatePage(INTERNAL_PAGE);
+        putInt(newRoot, childAt(0), root);
+        putString(newRoot, keyAt(0), key);
+        putInt(newRoot, childAt(1), right);
+        setCount(newRoot, 1);
+        root = newRoot;
+        height++;
+    }
+
+    /**
+     * Write keys [from, to) and children [from, to] into an internal page.
+     */
+    private void writeInternal(int page, byte[][] keys, int[] children, int from, int to) {
+        for (int i = from; i < to; i++) {
+            putString(page, keyAt(i - from), keys[i]);
+        }
+        for (int i = from; i <= to; i++) {
+            putInt(page, childAt(i - from), children[i]);
+        }
+        setCount(page, to - from);
+    }
+
+    /**
+     * Delete a product by ID. A leaf that becomes empty is unlinked
+     * and freed, and so are internal pages left without children.
+     *
+     * @param id
+     * @return true if deleted, false if not found
+     */
+    @Override
+    public boolean delete(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        if (key.length > ID_BYTES)
+            return false;
+
+        int[] pages = new int[height];
+        int[] slots = new int[height];
+        int leaf = descend(key, pages, slots);
+        int slot = searchLeaf(leaf, key);
+        if (slot < 0)
+            return false;
+
+        int count = count(leaf);
+        copy(leaf, recordAt(slot + 1), leaf, recordAt(slot), (count - slot - 1) * RECORD_SIZE);
+        setCount(leaf, count - 1);
+        size--;
+
+        if (count == 1 && height > 1) {
+            int prev = getInt(leaf, PAGE_PREV);
+            int next = getInt(leaf, PAGE_NEXT);
+            if (prev != NO_PAGE) {
+                putInt(prev, PAGE_NEXT, next);
+            }
+            if (next != NO_PAGE) {
+                putInt(next, PAGE_PREV, prev);
+            }
+            releasePage(leaf);
+            removeChild(pages, slots, height - 2);
+        }
+
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * Remove the pointer to a freed page from its parent, freeing parents
+     * that lose their last child and shrinking the tree from the top.
+     *
+     * @param pages
+     * @param slots
+     * @param level level of the parent in the recorded path
+     */
+    private void removeChild(int[] pages, int[] slots, int level) {
+        while (level >= 0 && count(pages[level]) == 0) {
+            releasePage(pages[level]);
+            level--;
+        }
+        if (level < 0) {
+            root = allocatePage(LEAF_PAGE);
+            height = 1;
+            return;
+        }
+
+        int page = pages[level];
+        int slot = slots[level];
+        int count = count(page);
+        int keySlot = slot == 0 ? 0 : slot - 1;
+        copy(page, keyAt(keySlot + 1), page, keyAt(keySlot), (count - keySlot - 1) * KEY_SIZE);
+        copy(page, childAt(slot + 1), page, childAt(slot), (count - slot) * Integer.BYTES);
+        setCount(page, count - 1);
+
+        while (height > 1 && count(root) == 0) {
+            int oldRoot = root;
+            root = getInt(root, childAt(0));
+            releasePage(oldRoot);
+            height--;
+        }
+    }
+
+    /**
+     * Locate a product record for an in-place update.
+     *
+     * @param id
+     * @return {leaf, slot} or null if not found
+     */
+    private int[] locate(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        if (key.length > ID_BYTES)
+            return null;
+
+        int leaf = descend(key, null, null);
+        int slot = searchLeaf(leaf, key);
+        return slot < 0 ? null : new int[] { leaf, slot };
+    }
+
+    @Override
+    public boolean updateStock(String id, int newStock) {
+        int[] location = locate(id);
+        if (location == null)
+            return false;
+
+        putInt(location[0], recordAt(location[1]) + RECORD_STOCK, newStock);
+        return true;
+    }
+
+    @Override
+    public boolean updatePrice(String id, double newPrice) {
+        int[] location = locate(id);
+        if (location == null)
+            return false;
+
+        segment(location[0]).putDouble(base(location[0]) + recordAt(location[1]) + RECORD_PRICE, newPrice);
+        return true;
+    }
+
+    /**
+     * Make this catalog hold exactly the products of another catalog.
+     * IDs missing from the source are deleted, the records of the remaining
+     * IDs are rewritten whole and new IDs are inserted, so an existing file
+     * is brought up to date instead of merged into. Every record is checked
+     * before the first write, so a product that does not fit leaves the
+     * file unchanged.
+     *
+     * @param source
+     * @throws IllegalArgumentException if a string field does not fit its record slot
+     */
+    public void replaceWith(ProductCatalog source) {
+        for (Product product : source) {
+            encode(product.getId(), ID_BYTES, "ID");
+            encode(product.getName(), NAME_BYTES, "Nama");
+            encode(product.getCategory(), CATEGORY_BYTES, "Kategori");
+        }
+
+        /**
+         * Collect first, the leaf chain must not change while iterating
+         */
+        List<String> removed = new ArrayList<>();
+        for (Product product : this) {
+            if (source.search(product.getId()) == null) {
+                removed.add(product.getId());
+            }
+        }
+        for (String id : removed) {
+            delete(id);
+        }
+
+        for (Product product : source) {
+            int[] location = locate(product.getId());
+            if (location == null) {
+                insert(product);
+                continue;
+            }
+
+            int leaf = location[0];
+            int record = recordAt(location[1]);
+            putString(leaf, record + RECORD_NAME, encode(product.getName(), NAME_BYTES, "Nama"));
+            putString(leaf, record + RECORD_CATEGORY, encode(product.getCategory(), CATEGORY_BYTES, "Kategori"));
+            segment(leaf).putDouble(base(leaf) + record + RECORD_PRICE, product.getPrice());
+            putInt(leaf, record + RECORD_STOCK, product.getStock());
+        }
+    }
+
+    /**
+     * Search for products within a price range.
+     * The B+tree is keyed by ID only, there is no price index on disk,
+     * so price ranges fall back to a full scan: one sequential pass over
+     * every leaf, decoding only the records inside the range, then a sort
+     * of the matches. Costs O(n + k log k) per query, use ProductBST for
+     * frequent price queries.
+     *
+     * @param minPrice
+     * @param maxPrice
+     * @return List of products within the price range, cheapest first
+     */
+    @Override
+    public List<Product> searchInRange(double minPrice, double maxPrice) {
+        List<Product> result = new ArrayList<>();
+        for (int leaf = firstLeaf(); leaf != NO_PAGE; leaf = getInt(leaf, PAGE_NEXT)) {
+            ByteBuffer buffer = segment(leaf);
+            int count = count(leaf);
+            for (int slot = 0; slot < count; slot++) {
+                double price = buffer.getDouble(base(leaf) + recordAt(slot) + RECORD_PRICE);
+                if (Double.compare(price, minPrice) >= 0 && Double.compare(price, maxPrice) <= 0) {
+                    result.add(readProduct(leaf, slot));
+                }
+            }
+        }
+        result.sort(BY_PRICE);
+        return result;
+    }
+
+    /**
+     * Retrieve one page of products in ID order.
+     * Costs one descent plus a walk along adjacent leaves.
+     *
+     * @param afterId last ID of the previous page, or null for the first page
+     * @param limit maximum number of products to return
+     * @return List of products sorted by ID
+     */
+    public List<Product> getProducts(String afterId, int limit) {
+        List<Product> result = new ArrayList<>();
+        int leaf;
+        int slot;
+        if (afterId == null) {
+            leaf = firstLeaf();
+            slot = 0;
+        } else {
+            byte[] key = afterId.getBytes(StandardCharsets.UTF_8);
+            leaf = descend(key, null, null);
+            slot = searchLeaf(leaf, key);
+            slot = slot >= 0 ? slot + 1 : -slot - 1;
+        }
+
+        while (leaf != NO_PAGE && result.size() < limit) {
+            int count = count(leaf);
+            for (; slot < count && result.size() < limit; slot++) {
+                result.add(readProduct(leaf, slot));
+            }
+            leaf = getInt(leaf, PAGE_NEXT);
+            slot = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Iterate all products in ID order along the leaf chain.
+     * The catalog must not be modified while iterating.
+     *
+     * @return Iterator over all products
+     */
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<Product>() {
+            private int leaf = firstLeaf();
+            private int slot = 0;
+
+            private void skipExhausted() {
+                while (leaf != NO_PAGE && slot >= count(leaf)) {
+                    leaf = getInt(leaf, PAGE_NEXT);
+                    slot = 0;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                skipExhausted();
+                return leaf != NO_PAGE;
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readProduct(leaf, slot++);
+            }
+        };
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return bytes of the file in use by header, tree and free pages
+     */
+    public long getFileBytes() {
+        return (long) pageCount * PAGE_SIZE;
+    }
+
+    /**
+     * Write all changes to the file.
+     */
+    public void flush() {
+        writeHeader();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flush and close the file. The catalog cannot be used afterwards.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null)
+            return;
+
+        flush();
+        segments.clear();
+        channel.close();
+        channel = null;
+    }
+}
@@ -0,0 +1,167 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Product catalog made of immutable versions, for reports that must not
+ * see a half-applied change. Every change builds the next version by
+ * path copying, O(log n) new nodes, and publishes it with one
+ * compare-and-set, so readers take a consistent snapshot without locks.
+ * Products are copied on the way in and on every change, and handed out
+ * as copies, so no caller can modify a published version.
+ */
+public class PersistentProductCatalog implements ProductCatalog {
+    private final AtomicReference<ProductCatalogSnapshot> current =
+            new AtomicReference<>(ProductCatalogSnapshot.EMPTY);
+
+    /**
+     * Take the current version. It stays valid and unchanged
+     * however many changes are applied afterwards.
+     *
+     * @return Snapshot of the catalog
+     */
+    public ProductCatalogSnapshot snapshot() {
+        return current.get();
+    }
+
+    @Override
+    public void insert(Product product) {
+        Product copy = ProductCatalogSnapshot.copyOf(product, product.getPrice(), product.getStock());
+        ProductCatalogSnapshot snapshot;
+        ProductCatalogSnapshot next;
+        do {
+            snapshot = current.get();
+            if (snapshot.find(product.getId()) != null)
+                return;
+            next = snapshot.withInserted(copy);
+        } while (!current.compareAndSet(snapshot, next));
+    }
+
+    @Override
+    public Product search(String id) {
+        return current.get().search(id);
+    }
+
+    @Override
+    public List<Product> searchInRange(double minPrice, double maxPrice) {
+        return current.get().searchInRange(minPrice, maxPrice);
+    }
+
+    @Override
+    public boolean delete(String id) {
+        ProductCatalogSnapshot snapshot;
+        ProductCatalogSnapshot next;
+        do {
+            snapshot = current.get();
+            Product product = snapshot.find(id);
+            if (product == null)
+                return false;
+            next = snapshot.withDeleted(product);
+        } while (!current.compareAndSet(snapshot, next));
+        return true;
+    }
+
+    @Override
+    public boolean updateStock(String id, int newStock) {
+        ProductCatalogSnapshot snapshot;
+        ProductCatalogSnapshot next;
+        do {
+            snapshot = current.get();
+            Product product = snapshot.find(id);
+            if (product == null)
+                return false;
+            next = snapshot.withReplaced(product,
+                    ProductCatalogSnapshot.copyOf(product, product.getPrice(), newStock));
+        } while (!current.compareAndSet(snapshot, next));
+        return true;
+    }
+
+    @Override
+    public boolean updatePrice(String id, double newPrice) {
+        ProductCatalogSnapshot snapshot;
+        ProductCatalogSnapshot next;
+        do {
+            snapshot = current.get();
+            Product product = snapshot.find(id);
+            if (product == null)
+                return false;
+            next = snapshot.withReplaced(product,
+                    ProductCatalogSnapshot.copyOf(product, newPrice, product.getStock()));
+        } while (!current.compareAndSet(snapshot, next));
+        return true;
+    }
+
+    /**
+     * Atomically take units from the stock of a product.
+     * The check and the change are published together, so concurrent
+     * reservations never take more units than are in stock.
+     *
+     * @param id
+     * @param quantity
+     * @return true if reserved, false if not found or stock is insufficient
+     */
+    public boolean tryReserveStock(String id, int quantity) {
+        if (quantity < 0)
+            return false;
+
+        ProductCatalogSnapshot snapshot;
+        ProductCatalogSnapshot next;
+        do {
+            snapshot = current.get();
+            Product product = snapshot.find(id);
+            if (product == null || product.getStock() < quantity)
+                return false;
+            next = snapshot.withReplaced(product,
+                    ProductCatalogSnapshot.copyOf(product, product.getPrice(), product.getStock() - quantity));
+        } while (!current.compareAndSet(snapshot, next));
+        return true;
+    }
+
+    /**
+     * Return units to the stock of a product.
+     *
+     * @param id
+     * @param quantity
+     * @return true if released, false if not found
+     */
+    public boolean releaseStock(String id, int quantity) {
+        ProductCatalogSnapshot snapshot;
+        ProductCatalogSnapshot next;
+        do {
+            snapshot = current.get();
+            Product product = snapshot.find(id);
+            if (product == null)
+                return false;
+            next = snapshot.withReplaced(product,
+                    ProductCatalogSnapshot.copyOf(product, product.getPrice(), product.getStock() + quantity));
+        } while (!current.compareAndSet(snapshot, next));
+        return true;
+    }
+
+    public long getTotalStock() {
+        return current.get().getTotalStock();
+    }
+
+    public double getTotalInventoryValue() {
+        return current.get().getTotalInventoryValue();
+    }
+
+    /**
+     * Iterate the version current at the time of the call.
+     *
+     * @return Iterator over the products in ID order
+     */
+    @Override
+    public Iterator<Product> iterator() {
+        return current.get().iterator();
+    }
+
+    @Override
+    public int getSize() {
+        return current.get().getSize();
+    }
+}
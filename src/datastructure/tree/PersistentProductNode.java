@@ -0,0 +1,48 @@
+package datastructure.tree;
+
+import models.Product;
+
+/**
+ * Immutable AVL node of a PersistentProductCatalog.
+ * A node is never changed once built, a change builds new nodes along the
+ * path to the root and shares every untouched subtree with older versions.
+ */
+final class PersistentProductNode {
+    final Product product;
+    final PersistentProductNode left, right;
+    final int height;
+    /**
+     * Aggregates over the subtree rooted at this node
+     */
+    final int size;
+    final long totalStock;
+    final double totalValue;
+
+    PersistentProductNode(Product product, PersistentProductNode left, PersistentProductNode right) {
+        this.product = product;
+        this.left = left;
+        this.right = right;
+        this.height = 1 + Math.max(height(left), height(right));
+
+        int size = 1;
+        long totalStock = product.getStock();
+        double totalValue = product.getPrice() * product.getStock();
+        if (left != null) {
+            size += left.size;
+            totalStock += left.totalStock;
+            totalValue += left.totalValue;
+        }
+        if (right != null) {
+            size += right.size;
+            totalStock += right.totalStock;
+            totalValue += right.totalValue;
+        }
+        this.size = size;
+        this.totalStock = totalStock;
+        this.totalValue = totalValue;
+    }
+
+    static int height(PersistentProductNode node) {
+        return node == null ? 0 : node.height;
+    }
+}
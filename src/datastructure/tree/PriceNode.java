@@ -0,0 +1,19 @@
+package datastructure.tree;
+
+import models.Product;
+
+class PriceNode {
+    Product product;
+    PriceNode left, right;
+    int height;
+    /**
+     * Number of products in the subtree, for order-statistic queries
+     */
+    int size;
+
+    public PriceNode(Product product) {
+        this.product = product;
+        this.height = 1;
+        this.size = 1;
+    }
+}
@@ -3,297 +3,836 @@ package datastructure.tree;
 import models.Product;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Product catalog keyed by product ID, kept balanced as an AVL tree.
+ * Insert, search and delete are iterative, so sorted ID streams
+ * neither degrade the tree nor grow the call stack.
+ * Lookups by ID are served from an array snapshot of the tree plus
+ * the few inserts and deletes made since it was built.
+ */
+public class ProductBST implements ProductCatalog {
+    /**
+     * An AVL tree of 2^31 nodes is less than 46 levels deep
+     */
+    static final int MAX_HEIGHT = 64;
+    /**
+     * The ID index is rebuilt once the delta holds more than this many IDs
+     * and more than size / ID_DELTA_RATIO, so rebuilds cost O(1) amortized
+     */
+    private static final int MIN_ID_DELTA = 64;
+    private static final int ID_DELTA_RATIO = 8;
+    /**
+     * Delta entry of an ID deleted since the ID index was built
+     */
+    private static final Product DELETED = new Product("", "", "", 0, 0);
 
-public class ProductBST {
     private ProductNode root;
     private int size;
+    /**
+     * Counts inserts and deletes so iterators can fail fast
+     */
+    int modCount;
+    private ProductPriceTree priceIndex = new ProductPriceTree();
+    private ProductCategoryIndex categoryIndex = new ProductCategoryIndex();
+    /**
+     * Built on the first name query, so loading a catalog does not pay for it
+     */
+    private ProductNameIndex nameIndex;
+    /**
+     * Read-only snapshot for lookups by ID, swapped in whole on rebuild.
+     * IDs inserted or deleted since then are kept in the delta, which is
+     * concurrent so optimistic readers never see it half-updated
+     */
+    private volatile ProductIdIndex idIndex = ProductIdIndex.EMPTY;
+    private Map<String, Product> idDelta = new ConcurrentHashMap<>();
+
+    private static int height(ProductNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Recompute height and subtree aggregates of a node from its children.
+     *
+     * @param node
+     */
+    private static void update(ProductNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+
+        Product product = node.product;
+        node.minPriceProduct = product;
+        node.maxPriceProduct = product;
+        node.totalStock = product.getStock();
+        node.totalValue = product.getPrice() * product.getStock();
+
+        absorb(node, node.left);
+        absorb(node, node.right);
+    }
+
+    /**
+     * Merge the aggregates of a child subtree into its parent.
+     *
+     * @param node
+     * @param child
+     */
+    private static void absorb(ProductNode node, ProductNode child) {
+        if (child == null)
+            return;
+
+        if (child.minPriceProduct.getPrice() < node.minPriceProduct.getPrice()) {
+            node.minPriceProduct = child.minPriceProduct;
+        }
+        if (child.maxPriceProduct.getPrice() > node.maxPriceProduct.getPrice()) {
+            node.maxPriceProduct = child.maxPriceProduct;
+        }
+        node.totalStock += child.totalStock;
+        node.totalValue += child.totalValue;
+    }
+
+    private static ProductNode rotateRight(ProductNode node) {
+        ProductNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static ProductNode rotateLeft(ProductNode node) {
+        ProductNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Restore the AVL balance of a node whose subtrees differ in height by at most 2.
+     *
+     * @param node
+     * @return new root of the subtree
+     */
+    private static ProductNode rebalance(ProductNode node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            /**
+             * Left-heavy: left-right case needs a left rotation first
+             */
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            /**
+             * Right-heavy: right-left case needs a right rotation first
+             */
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rebalance every node on a root-to-leaf path, bottom-up.
+     *
+     * @param path
+     * @param depth number of nodes on the path
+     */
+    private void rebalancePath(ProductNode[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            ProductNode node = path[i];
+            ProductNode balanced = rebalance(node);
+            if (balanced != node) {
+                replaceChild(i == 0 ? null : path[i - 1], node, balanced);
+            }
+        }
+    }
+
+    /**
+     * Replace a child of parent, or the root if parent is null.
+     *
+     * @param parent
+     * @param child
+     * @param replacement
+     */
+    private void replaceChild(ProductNode parent, ProductNode child, ProductNode replacement) {
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == child) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+    }
 
     /**
      * Insert a product into the BST.
-     * 
+     * Products with an ID that already exists are ignored.
+     *
      * @param product
      */
     public void insert(Product product) {
-        root = insertRec(root, product);
+        ProductNode[] path = new ProductNode[MAX_HEIGHT];
+        int depth = 0;
+        ProductNode node = root;
+
+        /**
+         * Walk down to the insertion point, remembering the path
+         */
+        while (node != null) {
+            int cmp = product.getId().compareTo(node.product.getId());
+            if (cmp == 0)
+                return;
+            path[depth++] = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        ProductNode created = new ProductNode(product);
+        if (depth == 0) {
+            root = created;
+        } else if (product.getId().compareTo(path[depth - 1].product.getId()) < 0) {
+            path[depth - 1].left = created;
+        } else {
+            path[depth - 1].right = created;
+        }
         size++;
+        modCount++;
+
+        rebalancePath(path, depth);
+        idChanged(product.getId(), product);
+        priceIndex.insert(product);
+        categoryIndex.add(product);
+        if (nameIndex != null) {
+            nameIndex.add(product);
+        }
     }
 
     /**
-     * Recursive helper to insert a product into the BST.
-     * 
-     * @param node
-     * @param product
-     * @return Updated node
+     * Build an empty catalog from a batch of products.
+     * Input already sorted by ID is detected in one pass, anything else
+     * is sorted first. The tree is then built bottom-up from the middle
+     * of each range, so it is perfectly balanced and built in O(n).
+     *
+     * @param products
+     * @throws IllegalStateException if the catalog is not empty
+     * @throws IllegalArgumentException if two products share an ID
      */
-    private ProductNode insertRec(ProductNode node, Product product) {
+    public void bulkLoad(Collection<Product> products) {
+        if (size != 0) {
+            throw new IllegalStateException("Bulk load hanya untuk katalog kosong");
+        }
+
+        Product[] sorted = products.toArray(new Product[0]);
+        boolean ordered = true;
+        for (int i = 1; i < sorted.length && ordered; i++) {
+            ordered = sorted[i - 1].getId().compareTo(sorted[i].getId()) < 0;
+        }
+        if (!ordered) {
+            Arrays.sort(sorted, Comparator.comparing(Product::getId));
+        }
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1].getId().equals(sorted[i].getId())) {
+                throw new IllegalArgumentException("ID produk duplikat: " + sorted[i].getId());
+            }
+        }
+
+        root = build(sorted, 0, sorted.length - 1);
+        size = sorted.length;
+        modCount++;
+        idIndex = new ProductIdIndex(sorted);
+        idDelta.clear();
+
         /**
-         * If node is null, create new node
+         * A stable sort by price keeps equal prices in ID order,
+         * which is exactly the order of the price indexes
          */
-        if (node == null) {
-            return new ProductNode(product);
-        }
+        Product[] byPrice = sorted.clone();
+        Arrays.sort(byPrice, Comparator.comparingDouble(Product::getPrice));
+        priceIndex.bulkLoad(byPrice);
+        categoryIndex.bulkLoad(byPrice);
 
         /**
-         * Traverse left or right based on product ID
+         * A name index built while the catalog was empty would miss every
+         * loaded product, drop it so the next name search rebuilds it
          */
-        if (product.getId().compareTo(node.product.getId()) < 0) {
-            node.left = insertRec(node.left, product);
-        } else if (product.getId().compareTo(node.product.getId()) > 0) {
-            node.right = insertRec(node.right, product);
-        }
+        nameIndex = null;
+    }
 
+    /**
+     * Build a balanced subtree from a sorted range, the middle product
+     * becomes the root. Recursion depth is log n.
+     *
+     * @param products
+     * @param from
+     * @param to inclusive
+     * @return root of the subtree, or null for an empty range
+     */
+    private static ProductNode build(Product[] products, int from, int to) {
+        if (from > to)
+            return null;
+
+        int mid = (from + to) >>> 1;
+        ProductNode node = new ProductNode(products[mid]);
+        node.left = build(products, from, mid - 1);
+        node.right = build(products, mid + 1, to);
+        update(node);
         return node;
     }
 
     /**
      * Search for a product by ID.
-     * Search is done depth-first.
-     * 
+     * Recent inserts and deletes are answered by the delta, everything
+     * else by the array snapshot, which never touches the tree nodes.
+     *
      * @param id
      * @return Product object or null if not found
      */
     public Product search(String id) {
-        return searchRec(root, id);
+        if (!idDelta.isEmpty()) {
+            Product product = idDelta.get(id);
+            if (product != null)
+                return product == DELETED ? null : product;
+        }
+        return idIndex.search(id);
     }
 
     /**
-     * Recursive helper to search for a product by ID.
-     * Search is done depth-first.
-     * 
-     * @param node
+     * Record an inserted or deleted ID for lookups, rebuilding the
+     * ID index from the tree in O(n) once the delta has grown too large.
+     *
      * @param id
-     * @return Product object or null if not found
+     * @param product the product now under the ID, or DELETED
      */
-    private Product searchRec(ProductNode node, String id) {
-        /**
-         * Base case: node is null
-         */
-        if (node == null)
-            return null;
+    private void idChanged(String id, Product product) {
+        idDelta.put(id, product);
+        if (idDelta.size() <= MIN_ID_DELTA || idDelta.size() <= size / ID_DELTA_RATIO)
+            return;
 
-        /**
-         * Check if current node matches ID
-         */
-        if (id.equals(node.product.getId())) {
-            return node.product;
+        Product[] sorted = new Product[size];
+        int i = 0;
+        for (Product current : this) {
+            sorted[i++] = current;
         }
-
         /**
-         * Traverse left or right based on ID comparison
+         * Publish the new index before dropping the delta it replaces
          */
-        if (id.compareTo(node.product.getId()) < 0) {
-            return searchRec(node.left, id);
-        }
-        return searchRec(node.right, id);
+        idIndex = new ProductIdIndex(sorted);
+        idDelta.clear();
     }
 
     /**
      * Search for products within a price range.
-     * Search is done depth-first.
-     * 
+     * Answered by the price index in O(log n + k).
+     *
      * @param minPrice
      * @param maxPrice
-     * @return List of products within the price range
+     * @return List of products within the price range, cheapest first
      */
     public List<Product> searchInRange(double minPrice, double maxPrice) {
-        List<Product> result = new ArrayList<>();
-        searchInRangeRec(root, minPrice, maxPrice, result);
-        return result;
+        return priceIndex.searchInRange(minPrice, maxPrice);
     }
 
     /**
-     * Recursive helper to search for products within a price range.
-     * Search is done depth-first.
-     * 
-     * @param node
+     * Number of products strictly cheaper than a price, in O(log n).
+     *
+     * @param price
+     * @return rank of the price
+     */
+    public int rankByPrice(double price) {
+        return priceIndex.rank(price);
+    }
+
+    /**
+     * Find the k-th cheapest product in O(log n).
+     *
+     * @param k zero-based rank, 0 is the cheapest product
+     * @return Product at that rank, or null if k is out of range
+     */
+    public Product selectByPrice(int k) {
+        return priceIndex.select(k);
+    }
+
+    /**
+     * Count products within a price range in O(log n), without listing them.
+     *
      * @param minPrice
      * @param maxPrice
-     * @param result
+     * @return number of products within the price range
      */
-    private void searchInRangeRec(ProductNode node, double minPrice, double maxPrice, List<Product> result) {
-        /**
-         * Base case: node is null
-         */
-        if (node == null)
-            return;
+    public int countInPriceRange(double minPrice, double maxPrice) {
+        return priceIndex.countInRange(minPrice, maxPrice);
+    }
 
-        /**
-         * Traverse left subtree
-         */
-        searchInRangeRec(node.left, minPrice, maxPrice, result);
+    /**
+     * Find the k-th cheapest product within a price range in O(log n).
+     *
+     * @param minPrice
+     * @param maxPrice
+     * @param k zero-based rank within the range
+     * @return Product at that rank, or null if the range has fewer products
+     */
+    public Product selectInPriceRange(double minPrice, double maxPrice, int k) {
+        if (k < 0 || k >= priceIndex.countInRange(minPrice, maxPrice))
+            return null;
+        return priceIndex.select(priceIndex.rank(minPrice) + k);
+    }
 
-        /**
-         * Check if current node's product price is within range
-         */
-        if (node.product.getPrice() >= minPrice && node.product.getPrice() <= maxPrice) {
-            /**
-             * Add product to result list
-             */
-            result.add(node.product);
+    /**
+     * Median product price, the mean of both middle prices
+     * when the catalog has an even number of products.
+     *
+     * @return median price, or NaN if the catalog is empty
+     */
+    public double getMedianPrice() {
+        int n = priceIndex.getSize();
+        if (n == 0)
+            return Double.NaN;
+
+        double upper = priceIndex.select(n / 2).getPrice();
+        if (n % 2 == 1)
+            return upper;
+        return (priceIndex.select(n / 2 - 1).getPrice() + upper) / 2;
+    }
+
+    /**
+     * Price percentile by the nearest-rank method: the lowest price
+     * that at least p percent of the products do not exceed.
+     *
+     * @param percentile between 0 and 100
+     * @return price at the percentile, or NaN if the catalog is empty
+     */
+    public double getPricePercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Persentil harus antara 0 dan 100");
         }
 
-        /**
-         * Traverse right subtree
-         */
-        searchInRangeRec(node.right, minPrice, maxPrice, result);
+        int n = priceIndex.getSize();
+        if (n == 0)
+            return Double.NaN;
+
+        int k = Math.max(0, (int) Math.ceil(percentile / 100 * n) - 1);
+        return priceIndex.select(k).getPrice();
     }
 
     /**
-     * In-order traversal to get products in sorted order.
-     * 
-     * @param products
+     * Search for products of a category within a price range.
+     * Answered by the category's own price tree in O(log n + k).
+     *
+     * @param category
+     * @param minPrice
+     * @param maxPrice
+     * @return List of matching products, cheapest first
      */
-    public void inOrderTraversal(List<Product> products) {
-        inOrderRec(root, products);
+    public List<Product> searchByCategory(String category, double minPrice, double maxPrice) {
+        return categoryIndex.searchInRange(category, minPrice, maxPrice);
     }
 
     /**
-     * Recursive helper for in-order traversal.
-     * 
-     * @param node
-     * @param products
+     * Get all products of a category.
+     *
+     * @param category
+     * @return List of products in the category, cheapest first
      */
-    private void inOrderRec(ProductNode node, List<Product> products) {
-        if (node != null) {
-            /**
-             * Traverse left, visit node, traverse right
-             */
-            inOrderRec(node.left, products);
-            products.add(node.product);
-            inOrderRec(node.right, products);
+    public List<Product> searchByCategory(String category) {
+        return categoryIndex.searchInRange(category, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Suggest products for a partially typed name.
+     * Names starting with the query come first, then names with a word
+     * starting with it. Cost depends on the query and limit, not the catalog size.
+     *
+     * @param prefix
+     * @param limit
+     * @return up to limit products, best match first
+     */
+    public List<Product> autocomplete(String prefix, int limit) {
+        return nameIndex().autocomplete(prefix, limit);
+    }
+
+    /**
+     * Search products by name, tolerating typos in the query words.
+     *
+     * @param query
+     * @param limit
+     * @return up to limit products, best match first
+     */
+    public List<Product> searchByName(String query, int limit) {
+        return nameIndex().search(query, limit);
+    }
+
+    private ProductNameIndex nameIndex() {
+        if (nameIndex == null) {
+            nameIndex = new ProductNameIndex();
+            for (Product product : this) {
+                nameIndex.add(product);
+            }
         }
+        return nameIndex;
     }
 
     /**
-     * Find product with minimum price.
-     * 
-     * @return Product with minimum price
+     * Get the running counts of a category.
+     *
+     * @param category
+     * @return CategoryFacet or null if the category has no products
      */
-    public Product findMin() {
-        return findMinByPrice(root);
+    public CategoryFacet getCategoryFacet(String category) {
+        return categoryIndex.facet(category);
     }
 
     /**
-     * Recursive helper to find product with minimum price.
-     * 
-     * @param node
-     * @return Product with minimum price
+     * @return counts of every category, ordered by category name
      */
+    public List<CategoryFacet> getCategoryFacets() {
+        return categoryIndex.facets();
+    }
 
-    private Product findMinByPrice(ProductNode node) {
-        if (node == null)
-            return null;
+    /**
+     * Change the price of a product and re-index it.
+     * Prices of catalog products must be changed through here
+     * to keep the price and category indexes in sync.
+     *
+     * @param id
+     * @param newPrice
+     * @return true if updated, false if not found
+     */
+    public boolean updatePrice(String id, double newPrice) {
+        ProductNode[] path = new ProductNode[MAX_HEIGHT];
+        int depth = findPath(id, path);
+        if (depth == 0)
+            return false;
+
+        Product product = path[depth - 1].product;
+        priceIndex.delete(product);
+        categoryIndex.remove(product);
+        product.setPrice(newPrice);
+        priceIndex.insert(product);
+        categoryIndex.add(product);
+        refreshPath(path, depth);
+        return true;
+    }
 
-        Product minProduct = node.product;
+    /**
+     * Change the stock of a product and refresh the aggregates above it.
+     * Stock of catalog products must be changed through here
+     * to keep the aggregates and category counts in sync.
+     *
+     * @param id
+     * @param newStock
+     * @return true if updated, false if not found
+     */
+    public boolean updateStock(String id, int newStock) {
+        ProductNode[] path = new ProductNode[MAX_HEIGHT];
+        int depth = findPath(id, path);
+        if (depth == 0)
+            return false;
+
+        Product product = path[depth - 1].product;
+        int oldStock = product.getAndSetStock(newStock);
+        categoryIndex.stockAdded(product, newStock - oldStock);
+        refreshPath(path, depth);
+        return true;
+    }
+
+    /**
+     * Atomically take units from the stock of a product.
+     * The check and the decrement are one compare-and-set on the product,
+     * so two orders can never both take the last units. Reservations and
+     * releases may run concurrently with each other and with reads, but
+     * not with inserts, deletes or price changes.
+     *
+     * @param id
+     * @param quantity
+     * @return true if reserved, false if not found or quantity is not positive
+     *         or stock is insufficient
+     */
+    public boolean tryReserveStock(String id, int quantity) {
+        Product product = search(id);
+        if (product == null || quantity <= 0 || !product.tryReserveStock(quantity))
+            return false;
 
-        Product leftMin = findMinByPrice(node.left);
-        if (leftMin != null && leftMin.getPrice() < minProduct.getPrice()) {
-            minProduct = leftMin;
+        stockAdded(product, -quantity);
+        return true;
+    }
+
+    /**
+     * Return units to the stock of a product, e.g. for a cancelled order.
+     * May run concurrently like tryReserveStock.
+     *
+     * @param id
+     * @param quantity
+     * @return true if released, false if not found
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public boolean releaseStock(String id, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Jumlah stok yang dikembalikan harus lebih dari 0");
         }
+        Product product = search(id);
+        if (product == null)
+            return false;
+
+        product.releaseStock(quantity);
+        stockAdded(product, quantity);
+        return true;
+    }
 
-        Product rightMin = findMinByPrice(node.right);
-        if (rightMin != null && rightMin.getPrice() < minProduct.getPrice()) {
-            minProduct = rightMin;
+    /**
+     * Add a stock change made atomically on the product itself to the
+     * aggregates and category counts. Only adds the delta, so concurrent
+     * calls for products on overlapping paths do not overwrite each other.
+     *
+     * @param product
+     * @param delta units added, negative if taken
+     * @return false if the product is no longer in the catalog
+     */
+    boolean stockAdded(Product product, int delta) {
+        ProductNode[] path = new ProductNode[MAX_HEIGHT];
+        int depth = findPath(product.getId(), path);
+        if (depth == 0 || path[depth - 1].product != product)
+            return false;
+
+        categoryIndex.stockAdded(product, delta);
+        for (int i = 0; i < depth; i++) {
+            path[i].addStock(delta, product.getPrice());
         }
+        return true;
+    }
 
-        return minProduct;
+    /**
+     * Record the path from the root to the node with the given ID.
+     *
+     * @param id
+     * @param path
+     * @return number of nodes on the path ending at the node, or 0 if not found
+     */
+    private int findPath(String id, ProductNode[] path) {
+        int depth = 0;
+        ProductNode node = root;
+        while (node != null) {
+            path[depth++] = node;
+            int cmp = id.compareTo(node.product.getId());
+            if (cmp == 0)
+                return depth;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return 0;
     }
 
     /**
-     * Find product with maximum price.
+     * Recompute aggregates bottom-up along a path without rebalancing.
+     *
+     * @param path
+     * @param depth
+     */
+    private static void refreshPath(ProductNode[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            update(path[i]);
+        }
+    }
+
+    /**
+     * In-order traversal to get products in sorted order.
+     * Copies the whole catalog, prefer iterator() or getProducts() for paging.
      * 
+     * @param products
+     */
+    public void inOrderTraversal(List<Product> products) {
+        for (Product product : this) {
+            products.add(product);
+        }
+    }
+
+    /**
+     * Iterate all products in ID order without copying.
+     *
+     * @return ProductIterator that can be positioned with seek
+     */
+    @Override
+    public ProductIterator iterator() {
+        return new ProductIterator(this, root);
+    }
+
+    /**
+     * Retrieve one page of products in ID order in O(log n + limit).
+     *
+     * @param afterId last ID of the previous page, or null for the first page
+     * @param limit maximum number of products to return
+     * @return List of products sorted by ID
+     */
+    public List<Product> getProducts(String afterId, int limit) {
+        List<Product> page = new ArrayList<>(Math.min(limit, size));
+        iterator().seekAfter(afterId).limit(limit).forEachRemaining(page::add);
+        return page;
+    }
+
+    @Override
+    public Spliterator<Product> spliterator() {
+        return new ProductSpliterator(this, root, size);
+    }
+
+    public Stream<Product> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<Product> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Find product with minimum price in O(1) from the root aggregates.
+     *
+     * @return Product with minimum price
+     */
+    public Product findMin() {
+        return root == null ? null : root.minPriceProduct;
+    }
+
+    /**
+     * Find product with maximum price in O(1) from the root aggregates.
+     *
      * @return Product with maximum price
      */
     public Product findMax() {
-        return findMaxByPrice(root);
+        return root == null ? null : root.maxPriceProduct;
     }
 
     /**
-     * Recursive helper to find product with maximum price.
-     * 
-     * @param node
-     * @return Product with maximum price
+     * @return total stock of all products, in O(1)
      */
-    private Product findMaxByPrice(ProductNode node) {
-        if (node == null)
-            return null;
+    public long getTotalStock() {
+        return root == null ? 0 : root.totalStock;
+    }
 
-        Product maxProduct = node.product;
+    /**
+     * @return total value (price * stock) of all products, in O(1)
+     */
+    public double getTotalInventoryValue() {
+        return root == null ? 0 : root.totalValue;
+    }
 
-        Product leftMax = findMaxByPrice(node.left);
-        if (leftMax != null && leftMax.getPrice() > maxProduct.getPrice()) {
-            maxProduct = leftMax;
-        }
+    /**
+     * Total stock of products with IDs in [fromId, toId], in O(log n).
+     *
+     * @param fromId
+     * @param toId
+     * @return total stock in the ID range
+     */
+    public long getStockInRange(String fromId, String toId) {
+        return (long) (sumUpTo(toId, true, false) - sumUpTo(fromId, false, false));
+    }
 
-        Product rightMax = findMaxByPrice(node.right);
-        if (rightMax != null && rightMax.getPrice() > maxProduct.getPrice()) {
-            maxProduct = rightMax;
-        }
+    /**
+     * Total value (price * stock) of products with IDs in [fromId, toId], in O(log n).
+     *
+     * @param fromId
+     * @param toId
+     * @return inventory value in the ID range
+     */
+    public double getInventoryValueInRange(String fromId, String toId) {
+        return sumUpTo(toId, true, true) - sumUpTo(fromId, false, true);
+    }
 
-        return maxProduct;
+    /**
+     * Sum stock or value of every product with an ID below the bound,
+     * adding whole left subtrees from their aggregates along one path.
+     *
+     * @param id bound
+     * @param inclusive whether the bound itself is included
+     * @param value sum value instead of stock
+     * @return prefix sum
+     */
+    private double sumUpTo(String id, boolean inclusive, boolean value) {
+        double sum = 0;
+        ProductNode node = root;
+        while (node != null) {
+            int cmp = node.product.getId().compareTo(id);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                Product product = node.product;
+                sum += value ? product.getPrice() * product.getStock() : product.getStock();
+                if (node.left != null) {
+                    sum += value ? node.left.totalValue : node.left.totalStock;
+                }
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return sum;
     }
 
     /**
      * Delete a product by ID.
-     * Will look for the product depth-first.
      *
      * @param id
      * @return true if deleted, false if not found
      */
     public boolean delete(String id) {
-        int initialSize = size;
-        root = deleteRec(root, id);
-        return size < initialSize;
-    }
-
-    private ProductNode deleteRec(ProductNode node, String id) {
-        if (node == null)
-            return null;
+        ProductNode[] path = new ProductNode[MAX_HEIGHT];
+        int depth = 0;
+        ProductNode node = root;
 
         /**
          * Traverse left or right based on ID comparison
          */
-        if (id.compareTo(node.product.getId()) < 0) {
-            node.left = deleteRec(node.left, id);
-        } else if (id.compareTo(node.product.getId()) > 0) {
-            node.right = deleteRec(node.right, id);
-        } else {
-            /**
-             * Node is found - perform deletion
-             */
-            size--;
-
-            /**
-             * If node has no left child, return right child
-             */
-            if (node.left == null)
-                return node.right;
-
-            /**
-             * If node has no right child, return left child
-             */
-            if (node.right == null)
-                return node.left;
-
-            /**
-             * Two children - find inorder successor (min in right subtree)
-             */
-            Product minRight = findMinById(node.right);
-            node.product = minRight;
-            node.right = deleteRec(node.right, minRight.getId());
-            size++;
+        while (node != null) {
+            int cmp = id.compareTo(node.product.getId());
+            if (cmp == 0)
+                break;
+            path[depth++] = node;
+            node = cmp < 0 ? node.left : node.right;
         }
+        if (node == null)
+            return false;
+        Product removed = node.product;
 
-        return node;
-    }
+        /**
+         * Two children - move inorder successor (min in right subtree) here
+         * and unlink the successor node instead
+         */
+        if (node.left != null && node.right != null) {
+            path[depth++] = node;
+            ProductNode successor = node.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            node.product = successor.product;
+            node = successor;
+        }
 
-    private Product findMinById(ProductNode node) {
-        if (node == null)
-            return null;
-        if (node.left == null)
-            return node.product;
-        return findMinById(node.left);
+        /**
+         * Node now has at most one child, which takes its place
+         */
+        ProductNode child = node.left != null ? node.left : node.right;
+        replaceChild(depth == 0 ? null : path[depth - 1], node, child);
+        size--;
+        modCount++;
+
+        rebalancePath(path, depth);
+        idChanged(id, DELETED);
+        priceIndex.delete(removed);
+        categoryIndex.remove(removed);
+        if (nameIndex != null) {
+            nameIndex.remove(removed);
+        }
+        return true;
     }
 
     public int getSize() {
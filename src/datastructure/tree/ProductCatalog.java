@@ -0,0 +1,49 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.List;
+
+/**
+ * Common contract for product catalogs keyed by product ID.
+ * Iterating a catalog visits products in ID order.
+ */
+public interface ProductCatalog extends Iterable<Product> {
+    /**
+     * Insert a product. Products with an ID that already exists are ignored.
+     *
+     * @param product
+     */
+    void insert(Product product);
+
+    /**
+     * Search for a product by ID.
+     *
+     * @param id
+     * @return Product object or null if not found
+     */
+    Product search(String id);
+
+    /**
+     * Search for products within a price range.
+     *
+     * @param minPrice
+     * @param maxPrice
+     * @return List of products within the price range
+     */
+    List<Product> searchInRange(double minPrice, double maxPrice);
+
+    /**
+     * Delete a product by ID.
+     *
+     * @param id
+     * @return true if deleted, false if not found
+     */
+    boolean delete(String id);
+
+    boolean updateStock(String id, int newStock);
+
+    boolean updatePrice(String id, double newPrice);
+
+    int getSize();
+}
@@ -0,0 +1,300 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * One immutable version of a PersistentProductCatalog.
+ * It holds an AVL tree ordered by ID and one ordered by price, both built
+ * from immutable nodes, so it can be read from any thread without locks
+ * and every figure it reports comes from the same point in time.
+ * Products handed out are copies, so changing one changes neither this
+ * version nor the catalog.
+ */
+public final class ProductCatalogSnapshot implements Iterable<Product> {
+    static final ProductCatalogSnapshot EMPTY = new ProductCatalogSnapshot(null, null);
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    private static final Comparator<Product> BY_PRICE =
+            Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getId);
+
+    private final PersistentProductNode byId;
+    private final PersistentProductNode byPrice;
+
+    private ProductCatalogSnapshot(PersistentProductNode byId, PersistentProductNode byPrice) {
+        this.byId = byId;
+        this.byPrice = byPrice;
+    }
+
+    /**
+     * @param product
+     * @param price
+     * @param stock
+     * @return New product with the same ID, name and category
+     */
+    static Product copyOf(Product product, double price, int stock) {
+        return new Product(product.getId(), product.getName(), product.getCategory(), price, stock);
+    }
+
+    private static Product copyOf(Product product) {
+        return product == null ? null : copyOf(product, product.getPrice(), product.getStock());
+    }
+
+    /**
+     * Search for a product by ID in O(log n).
+     *
+     * @param id
+     * @return Copy of the product or null if not found
+     */
+    public Product search(String id) {
+        return copyOf(find(id));
+    }
+
+    /**
+     * @param id
+     * @return Product as stored in this version, or null if not found
+     */
+    Product find(String id) {
+        PersistentProductNode node = byId;
+        while (node != null) {
+            int cmp = id.compareTo(node.product.getId());
+            if (cmp == 0)
+                return node.product;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Search for products within a price range in O(log n + k).
+     *
+     * @param minPrice
+     * @param maxPrice
+     * @return List of products within the price range, cheapest first
+     */
+    public List<Product> searchInRange(double minPrice, double maxPrice) {
+        List<Product> result = new ArrayList<>();
+        searchInRangeRec(byPrice, minPrice, maxPrice, result);
+        return result;
+    }
+
+    private void searchInRangeRec(PersistentProductNode node, double minPrice, double maxPrice,
+                                  List<Product> result) {
+        if (node == null)
+            return;
+
+        /**
+         * Compare the way the tree is ordered, so NaN and -0.0 prices
+         * are pruned consistently with where they were inserted
+         */
+        double price = node.product.getPrice();
+        boolean aboveMin = Double.compare(price, minPrice) >= 0;
+        boolean belowMax = Double.compare(price, maxPrice) <= 0;
+        if (aboveMin) {
+            searchInRangeRec(node.left, minPrice, maxPrice, result);
+        }
+        if (aboveMin && belowMax) {
+            result.add(copyOf(node.product));
+        }
+        if (belowMax) {
+            searchInRangeRec(node.right, minPrice, maxPrice, result);
+        }
+    }
+
+    public Product findMinPrice() {
+        return extreme(byPrice, true);
+    }
+
+    public Product findMaxPrice() {
+        return extreme(byPrice, false);
+    }
+
+    private static Product extreme(PersistentProductNode node, boolean min) {
+        if (node == null)
+            return null;
+        while ((min ? node.left : node.right) != null) {
+            node = min ? node.left : node.right;
+        }
+        return copyOf(node.product);
+    }
+
+    public int getSize() {
+        return byId == null ? 0 : byId.size;
+    }
+
+    public long getTotalStock() {
+        return byId == null ? 0 : byId.totalStock;
+    }
+
+    public double getTotalInventoryValue() {
+        return byId == null ? 0 : byId.totalValue;
+    }
+
+    /**
+     * Iterate products in ID order with an explicit stack.
+     * The snapshot never changes, so the iterator cannot fail.
+     *
+     * @return Iterator over the products of this version
+     */
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<Product>() {
+            private final PersistentProductNode[] stack =
+                    new PersistentProductNode[PersistentProductNode.height(byId)];
+            private int depth;
+
+            {
+                pushLeft(byId);
+            }
+
+            private void pushLeft(PersistentProductNode node) {
+                while (node != null) {
+                    stack[depth++] = node;
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public Product next() {
+                if (depth == 0) {
+                    throw new NoSuchElementException();
+                }
+                PersistentProductNode node = stack[--depth];
+                pushLeft(node.right);
+                return copyOf(node.product);
+            }
+        };
+    }
+
+    /**
+     * @param product not yet in this version
+     * @return Next version with the product added
+     */
+    ProductCatalogSnapshot withInserted(Product product) {
+        return new ProductCatalogSnapshot(insert(byId, product, BY_ID), insert(byPrice, product, BY_PRICE));
+    }
+
+    /**
+     * @param product as stored in this version
+     * @return Next version without the product
+     */
+    ProductCatalogSnapshot withDeleted(Product product) {
+        return new ProductCatalogSnapshot(delete(byId, product, BY_ID), delete(byPrice, product, BY_PRICE));
+    }
+
+    /**
+     * Swap a product for a changed copy with the same ID.
+     * A stock change keeps both orders and only copies the two search paths,
+     * a price change moves the product within the price tree.
+     *
+     * @param product as stored in this version
+     * @param replacement
+     * @return Next version holding the replacement
+     */
+    ProductCatalogSnapshot withReplaced(Product product, Product replacement) {
+        PersistentProductNode nextByPrice = BY_PRICE.compare(product, replacement) == 0
+                ? replace(byPrice, product, replacement, BY_PRICE)
+                : insert(delete(byPrice, product, BY_PRICE), replacement, BY_PRICE);
+        return new ProductCatalogSnapshot(replace(byId, product, replacement, BY_ID), nextByPrice);
+    }
+
+    /**
+     * Path-copying AVL helpers. Each returns the root of a new tree that
+     * shares all subtrees off the search path with the old one.
+     * Recursion depth is bounded by the height of the balanced tree.
+     */
+    private static PersistentProductNode insert(PersistentProductNode node, Product product,
+                                                Comparator<Product> order) {
+        if (node == null)
+            return new PersistentProductNode(product, null, null);
+
+        int cmp = order.compare(product, node.product);
+        if (cmp < 0)
+            return balance(node.product, insert(node.left, product, order), node.right);
+        if (cmp > 0)
+            return balance(node.product, node.left, insert(node.right, product, order));
+        return node;
+    }
+
+    private static PersistentProductNode delete(PersistentProductNode node, Product product,
+                                                Comparator<Product> order) {
+        if (node == null)
+            return null;
+
+        int cmp = order.compare(product, node.product);
+        if (cmp < 0)
+            return balance(node.product, delete(node.left, product, order), node.right);
+        if (cmp > 0)
+            return balance(node.product, node.left, delete(node.right, product, order));
+
+        /**
+         * Node is found - unlink it, or replace it by its inorder successor
+         */
+        if (node.left == null)
+            return node.right;
+        if (node.right == null)
+            return node.left;
+        PersistentProductNode successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.product, node.left, deleteMin(node.right));
+    }
+
+    private static PersistentProductNode deleteMin(PersistentProductNode node) {
+        if (node.left == null)
+            return node.right;
+        return balance(node.product, deleteMin(node.left), node.right);
+    }
+
+    private static PersistentProductNode replace(PersistentProductNode node, Product product,
+                                                 Product replacement, Comparator<Product> order) {
+        int cmp = order.compare(product, node.product);
+        if (cmp < 0)
+            return new PersistentProductNode(node.product, replace(node.left, product, replacement, order), node.right);
+        if (cmp > 0)
+            return new PersistentProductNode(node.product, node.left, replace(node.right, product, replacement, order));
+        return new PersistentProductNode(replacement, node.left, node.right);
+    }
+
+    /**
+     * Build a node from its parts, rotating when the children differ in
+     * height by two. Rotations build new nodes instead of relinking.
+     */
+    private static PersistentProductNode balance(Product product, PersistentProductNode left,
+                                                 PersistentProductNode right) {
+        int balance = PersistentProductNode.height(left) - PersistentProductNode.height(right);
+
+        if (balance > 1) {
+            if (PersistentProductNode.height(left.left) < PersistentProductNode.height(left.right)) {
+                PersistentProductNode pivot = left.right;
+                return new PersistentProductNode(pivot.product,
+                        new PersistentProductNode(left.product, left.left, pivot.left),
+                        new PersistentProductNode(product, pivot.right, right));
+            }
+            return new PersistentProductNode(left.product, left.left,
+                    new PersistentProductNode(product, left.right, right));
+        }
+        if (balance < -1) {
+            if (PersistentProductNode.height(right.right) < PersistentProductNode.height(right.left)) {
+                PersistentProductNode pivot = right.left;
+                return new PersistentProductNode(pivot.product,
+                        new PersistentProductNode(product, left, pivot.left),
+                        new PersistentProductNode(right.product, pivot.right, right.right));
+            }
+            return new PersistentProductNode(right.product,
+                    new PersistentProductNode(product, left, right.left), right.right);
+        }
+        return new PersistentProductNode(product, left, right);
+    }
+}
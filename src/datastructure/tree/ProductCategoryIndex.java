@@ -0,0 +1,146 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Secondary index of products by category.
+ * Each category keeps its own price-ordered tree next to running facet
+ * counts, so filtering and counting a category never scans the catalog.
+ */
+class ProductCategoryIndex {
+    private static class Bucket {
+        ProductPriceTree products = new ProductPriceTree();
+        long totalStock;
+        double inventoryValue;
+
+        private static final VarHandle TOTAL_STOCK;
+        private static final VarHandle INVENTORY_VALUE;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                TOTAL_STOCK = lookup.findVarHandle(Bucket.class, "totalStock", long.class);
+                INVENTORY_VALUE = lookup.findVarHandle(Bucket.class, "inventoryValue", double.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    private Map<String, Bucket> buckets = new TreeMap<>();
+
+    /**
+     * Add a product under its current category, price and stock.
+     *
+     * @param product
+     */
+    public void add(Product product) {
+        Bucket bucket = buckets.computeIfAbsent(product.getCategory(), category -> new Bucket());
+        bucket.products.insert(product);
+        bucket.totalStock += product.getStock();
+        bucket.inventoryValue += product.getPrice() * product.getStock();
+    }
+
+    /**
+     * Build an empty index from distinct products sorted by price, then by ID.
+     * Grouping keeps that order, so every category tree is built in O(n).
+     *
+     * @param products
+     */
+    public void bulkLoad(Product[] products) {
+        Map<String, List<Product>> groups = new HashMap<>();
+        for (Product product : products) {
+            groups.computeIfAbsent(product.getCategory(), category -> new ArrayList<>()).add(product);
+        }
+
+        for (Map.Entry<String, List<Product>> group : groups.entrySet()) {
+            Bucket bucket = new Bucket();
+            bucket.products.bulkLoad(group.getValue().toArray(new Product[0]));
+            for (Product product : group.getValue()) {
+                bucket.totalStock += product.getStock();
+                bucket.inventoryValue += product.getPrice() * product.getStock();
+            }
+            buckets.put(group.getKey(), bucket);
+        }
+    }
+
+    /**
+     * Remove a product. Category, price and stock must be the ones
+     * it was added with, empty categories are dropped.
+     *
+     * @param product
+     */
+    public void remove(Product product) {
+        Bucket bucket = buckets.get(product.getCategory());
+        if (bucket == null)
+            return;
+
+        bucket.products.delete(product);
+        bucket.totalStock -= product.getStock();
+        bucket.inventoryValue -= product.getPrice() * product.getStock();
+        if (bucket.products.getSize() == 0) {
+            buckets.remove(product.getCategory());
+        }
+    }
+
+    /**
+     * Account for a stock change of a product that stays in place.
+     * The counts are added atomically, so concurrent stock changes may
+     * call this as long as no product is added or removed meanwhile.
+     *
+     * @param product
+     * @param delta units added, negative if taken
+     */
+    public void stockAdded(Product product, int delta) {
+        Bucket bucket = buckets.get(product.getCategory());
+        if (bucket == null)
+            return;
+
+        Bucket.TOTAL_STOCK.getAndAdd(bucket, (long) delta);
+        Bucket.INVENTORY_VALUE.getAndAdd(bucket, product.getPrice() * delta);
+    }
+
+    /**
+     * Products of a category within a price range in O(log n + k).
+     *
+     * @param category
+     * @param minPrice
+     * @param maxPrice
+     * @return List of matching products, cheapest first
+     */
+    public List<Product> searchInRange(String category, double minPrice, double maxPrice) {
+        Bucket bucket = buckets.get(category);
+        if (bucket == null)
+            return Collections.emptyList();
+        return bucket.products.searchInRange(minPrice, maxPrice);
+    }
+
+    public CategoryFacet facet(String category) {
+        Bucket bucket = buckets.get(category);
+        if (bucket == null)
+            return null;
+        return new CategoryFacet(category, bucket.products.getSize(), bucket.totalStock, bucket.inventoryValue);
+    }
+
+    /**
+     * @return facets of all categories ordered by category name
+     */
+    public List<CategoryFacet> facets() {
+        List<CategoryFacet> result = new ArrayList<>(buckets.size());
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            result.add(new CategoryFacet(entry.getKey(), bucket.products.getSize(),
+                    bucket.totalStock, bucket.inventoryValue));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package datastructure.tree;
+
+import models.Product;
+
+/**
+ * Read-only lookup table from product ID to product, for the hot lookup path.
+ * IDs are laid out in Eytzinger (BFS) order: the children of slot k are
+ * 2k and 2k + 1, so the first levels of every search share the same few
+ * cache lines and the next level sits at a computable address. Each slot
+ * holds an order-preserving 8-byte prefix of the ID in a long array, so a
+ * search compares primitives and only reads the ID string on a prefix tie.
+ */
+final class ProductIdIndex {
+    static final ProductIdIndex EMPTY = new ProductIdIndex(new Product[0]);
+
+    /**
+     * Slot 0 is unused so the arithmetic stays 1-based
+     */
+    private final long[] prefixes;
+    private final Product[] products;
+    private final int size;
+
+    /**
+     * @param sorted distinct products in ID order
+     */
+    ProductIdIndex(Product[] sorted) {
+        this.size = sorted.length;
+        this.prefixes = new long[size + 1];
+        this.products = new Product[size + 1];
+        fill(sorted, 0, 1);
+    }
+
+    /**
+     * Place sorted products by an in-order walk of the implicit tree.
+     * Recursion depth is log n.
+     *
+     * @param sorted
+     * @param next index of the next sorted product to place
+     * @param k slot to fill
+     * @return index of the next sorted product after the subtree of k
+     */
+    private int fill(Product[] sorted, int next, int k) {
+        if (k > size)
+            return next;
+
+        next = fill(sorted, next, 2 * k);
+        products[k] = sorted[next];
+        prefixes[k] = prefix(sorted[next].getId());
+        return fill(sorted, next + 1, 2 * k + 1);
+    }
+
+    /**
+     * Pack the first 8 chars into a long that orders like the strings.
+     * Encoding stops at the first char that does not fit a byte, so two IDs
+     * are only told apart by the prefix when their order really differs.
+     * The sign bit is flipped so a signed comparison orders the bytes unsigned.
+     *
+     * @param id
+     * @return prefix key, equal prefixes need a full comparison
+     */
+    static long prefix(String id) {
+        long key = 0;
+        int length = Math.min(id.length(), 8);
+        int i = 0;
+        for (; i < length; i++) {
+            char c = id.charAt(i);
+            if (c >= 0xFF) {
+                key = (key << 8) | 0xFF;
+                i++;
+                break;
+            }
+            key = (key << 8) | c;
+        }
+        key <<= 8 * (8 - i);
+        return key ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Search for a product by ID in O(log n).
+     * The descent has no data-dependent branch on the prefix comparison,
+     * it ends at the first slot not below the ID.
+     *
+     * @param id
+     * @return Product object or null if not found
+     */
+    Product search(String id) {
+        long key = prefix(id);
+        int k = 1;
+        while (k <= size) {
+            long slot = prefixes[k];
+            int less = slot < key ? 1 : 0;
+            if (slot == key) {
+                less = products[k].getId().compareTo(id) < 0 ? 1 : 0;
+            }
+            k = 2 * k + less;
+        }
+
+        /**
+         * Undo the trailing right turns and the last left turn
+         */
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        if (k == 0 || prefixes[k] != key)
+            return null;
+        Product product = products[k];
+        return product.getId().equals(id) ? product : null;
+    }
+
+    int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,115 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * In-order iterator over a ProductBST backed by an explicit stack.
+ * The stack holds the nodes still to be visited whose right subtree is
+ * also pending, so positioning costs O(log n) and each step O(1) amortized.
+ * Fails fast if products are inserted or deleted while iterating.
+ */
+public class ProductIterator implements Iterator<Product> {
+    private ProductBST tree;
+    private ProductNode root;
+    private ProductNode[] stack = new ProductNode[ProductBST.MAX_HEIGHT];
+    private int depth;
+    private int remaining = Integer.MAX_VALUE;
+    private int expectedModCount;
+
+    ProductIterator(ProductBST tree, ProductNode root) {
+        this.tree = tree;
+        this.root = root;
+        this.expectedModCount = tree.modCount;
+        pushLeft(root);
+    }
+
+    private void pushLeft(ProductNode node) {
+        while (node != null) {
+            stack[depth++] = node;
+            node = node.left;
+        }
+    }
+
+    /**
+     * Position the iterator at the first product with an ID not below fromId.
+     *
+     * @param fromId
+     * @return this iterator
+     */
+    public ProductIterator seek(String fromId) {
+        return position(fromId, true);
+    }
+
+    /**
+     * Position the iterator right after a product ID, for keyset pagination.
+     *
+     * @param afterId last ID of the previous page, or null for the first page
+     * @return this iterator
+     */
+    public ProductIterator seekAfter(String afterId) {
+        if (afterId == null) {
+            depth = 0;
+            pushLeft(root);
+            return this;
+        }
+        return position(afterId, false);
+    }
+
+    /**
+     * Rebuild the stack along the search path: every node at or after
+     * the target is pending together with its right subtree.
+     *
+     * @param id
+     * @param inclusive
+     * @return this iterator
+     */
+    private ProductIterator position(String id, boolean inclusive) {
+        depth = 0;
+        ProductNode node = root;
+        while (node != null) {
+            int cmp = node.product.getId().compareTo(id);
+            if (cmp > 0 || (inclusive && cmp == 0)) {
+                stack[depth++] = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Stop after at most limit more products.
+     *
+     * @param limit
+     * @return this iterator
+     */
+    public ProductIterator limit(int limit) {
+        this.remaining = limit;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return depth > 0 && remaining > 0;
+    }
+
+    @Override
+    public Product next() {
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        ProductNode node = stack[--depth];
+        pushLeft(node.right);
+        remaining--;
+        return node.product;
+    }
+}
@@ -0,0 +1,351 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Secondary index for searching products by name.
+ * Autocomplete walks two radix tries, one over whole names and one over
+ * single words. Typo-tolerant search finds words sharing trigrams with
+ * the query, verifies them by edit distance and ranks the products.
+ */
+class ProductNameIndex {
+    /**
+     * Words a query word may expand to by prefix in a fuzzy search
+     */
+    private static final int MAX_EXPANSIONS = 32;
+    private static final double PREFIX_SCORE = 0.9;
+    private static final double FUZZY_SCORE = 0.8;
+    /**
+     * Highest score first, ties by name and then ID
+     */
+    private static final Comparator<Map.Entry<Product, Double>> RANKING =
+            Comparator.<Map.Entry<Product, Double>>comparingDouble(Map.Entry::getValue).reversed()
+                    .thenComparing(entry -> entry.getKey().getName())
+                    .thenComparing(entry -> entry.getKey().getId());
+
+    private ProductNameTrie names = new ProductNameTrie();
+    private ProductNameTrie words = new ProductNameTrie();
+    private Map<String, Set<String>> trigrams = new HashMap<>();
+
+    /**
+     * Lowercase a name and reduce it to words separated by single spaces.
+     *
+     * @param name
+     * @return normalized name, empty if it has no letters or digits
+     */
+    static String normalize(String name) {
+        StringBuilder result = new StringBuilder(name.length());
+        boolean separator = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                separator = result.length() > 0;
+                continue;
+            }
+            if (separator) {
+                result.append(' ');
+                separator = false;
+            }
+            result.append(Character.toLowerCase(c));
+        }
+        return result.toString();
+    }
+
+    private static String[] words(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /**
+     * @param normalized
+     * @return words of the name, each listed once
+     */
+    private static String[] distinctWords(String normalized) {
+        String[] words = words(normalized);
+        int count = 0;
+        outer:
+        for (String word : words) {
+            for (int i = 0; i < count; i++) {
+                if (words[i].equals(word))
+                    continue outer;
+            }
+            words[count++] = word;
+        }
+        return Arrays.copyOf(words, count);
+    }
+
+    /**
+     * Trigrams of a word padded with '$' on both sides, so short words
+     * still have some and the word boundaries count as matches.
+     *
+     * @param word
+     * @return distinct trigrams
+     */
+    private static Set<String> trigramsOf(String word) {
+        String padded = "$" + word + "$";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    public void add(Product product) {
+        String name = normalize(product.getName());
+        names.insert(name, product);
+        for (String word : distinctWords(name)) {
+            if (words.insert(word, product)) {
+                for (String gram : trigramsOf(word)) {
+                    trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(word);
+                }
+            }
+        }
+    }
+
+    public void remove(Product product) {
+        String name = normalize(product.getName());
+        names.remove(name, product);
+        for (String word : distinctWords(name)) {
+            if (words.remove(word, product)) {
+                for (String gram : trigramsOf(word)) {
+                    Set<String> posting = trigrams.get(gram);
+                    posting.remove(word);
+                    if (posting.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Suggest products for a partially typed name.
+     * Names starting with the query rank first, then names where the
+     * query's last word starts any word and all earlier words appear.
+     * Name matches are ordered alphabetically, the rest follow the index.
+     *
+     * @param query
+     * @param limit
+     * @return up to limit products, best match first
+     */
+    public List<Product> autocomplete(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0)
+            return Collections.emptyList();
+
+        Map<String, Product> result = new LinkedHashMap<>();
+        names.visit(prefix, (key, products) -> collect(products, result, limit));
+
+        String[] queryWords = words(prefix);
+        String last = queryWords[queryWords.length - 1];
+        if (result.size() < limit && queryWords.length == 1) {
+            words.visit(last, (key, products) -> collect(products, result, limit));
+        } else if (result.size() < limit) {
+            /**
+             * Drive the lookup from the rarest complete word,
+             * the other words only filter its products
+             */
+            Collection<Product> rarest = null;
+            for (int i = 0; i < queryWords.length - 1; i++) {
+                Collection<Product> products = words.get(queryWords[i]);
+                if (products == null)
+                    return new ArrayList<>(result.values());
+                if (rarest == null || products.size() < rarest.size()) {
+                    rarest = products;
+                }
+            }
+
+            for (Product product : rarest) {
+                if (result.size() >= limit)
+                    break;
+                if (containsWords(product, queryWords)) {
+                    result.putIfAbsent(product.getId(), product);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Check a product name has every query word, the last one as a prefix.
+     *
+     * @param product
+     * @param queryWords
+     * @return true if all words match
+     */
+    private static boolean containsWords(Product product, String[] queryWords) {
+        String[] nameWords = words(normalize(product.getName()));
+        for (int i = 0; i < queryWords.length; i++) {
+            boolean found = false;
+            for (String word : nameWords) {
+                if (i < queryWords.length - 1 ? word.equals(queryWords[i]) : word.startsWith(queryWords[i])) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Add products to the result until it holds limit products.
+     *
+     * @param products
+     * @param result
+     * @param limit
+     * @return false once the result is full
+     */
+    private static boolean collect(Collection<Product> products, Map<String, Product> result, int limit) {
+        for (Product product : products) {
+            if (result.size() >= limit)
+                return false;
+            result.putIfAbsent(product.getId(), product);
+        }
+        return result.size() < limit;
+    }
+
+    /**
+     * Search products by name, tolerating typos.
+     * Every query word is matched against indexed words: exactly (1.0),
+     * as a prefix (0.9) or within a small edit distance (up to 0.8).
+     * A product scores the sum of its best match per query word.
+     *
+     * @param query
+     * @param limit
+     * @return up to limit products, highest score first
+     */
+    public List<Product> search(String query, int limit) {
+        String[] queryWords = words(normalize(query));
+        if (queryWords.length == 0 || limit <= 0)
+            return Collections.emptyList();
+
+        Map<Product, Double> scores = new HashMap<>();
+        for (String queryWord : new HashSet<>(List.of(queryWords))) {
+            Map<Product, Double> best = new HashMap<>();
+            for (Map.Entry<String, Double> match : similarWords(queryWord).entrySet()) {
+                for (Product product : words.get(match.getKey())) {
+                    best.merge(product, match.getValue(), Math::max);
+                }
+            }
+            best.forEach((product, score) -> scores.merge(product, score, Double::sum));
+        }
+
+        /**
+         * Keep the best k in a min-heap whose head is the weakest result
+         */
+        PriorityQueue<Map.Entry<Product, Double>> top = new PriorityQueue<>(RANKING.reversed());
+        for (Map.Entry<Product, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Map.Entry<Product, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Product> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Product, Double> entry : ranked) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    /**
+     * Find indexed words close to a query word.
+     *
+     * @param queryWord
+     * @return matching words with their similarity
+     */
+    private Map<String, Double> similarWords(String queryWord) {
+        Map<String, Double> result = new HashMap<>();
+        if (words.get(queryWord) != null) {
+            result.put(queryWord, 1.0);
+        }
+
+        int[] expansions = { 0 };
+        words.visit(queryWord, (word, products) -> {
+            result.putIfAbsent(word, PREFIX_SCORE);
+            return ++expansions[0] < MAX_EXPANSIONS;
+        });
+
+        int maxDistance = queryWord.length() <= 2 ? 0 : queryWord.length() <= 5 ? 1 : 2;
+        if (maxDistance == 0)
+            return result;
+
+        /**
+         * Count shared trigrams per candidate. Every edit destroys
+         * at most three trigrams, which bounds the count of a real match.
+         */
+        Set<String> queryGrams = trigramsOf(queryWord);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<String> posting = trigrams.get(gram);
+            if (posting == null)
+                continue;
+            for (String word : posting) {
+                if (Math.abs(word.length() - queryWord.length()) <= maxDistance) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+
+        int required = queryGrams.size() - 3 * maxDistance;
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String word = candidate.getKey();
+            if (candidate.getValue() < required || result.containsKey(word))
+                continue;
+            int distance = editDistance(queryWord, word, maxDistance);
+            if (distance <= maxDistance) {
+                result.put(word, FUZZY_SCORE * (1.0 - (double) distance / Math.max(queryWord.length(), word.length())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Levenshtein distance that gives up once it must exceed max.
+     *
+     * @param a
+     * @param b
+     * @param max
+     * @return distance, or max + 1 if it is larger than max
+     */
+    private static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max)
+                return max + 1;
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,328 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.LinkedHashMap;
+
+/**
+ * Radix trie from normalized name keys to the products carrying them.
+ * Chains of single-child nodes are collapsed into one edge label, so the
+ * trie holds at most two nodes per key no matter how long the keys are.
+ * Children are kept in arrays sorted by their first character.
+ */
+class ProductNameTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        /**
+         * Most keys belong to one product, which is held directly.
+         * Products sharing a key move into a map by ID instead,
+         * kept in insertion order so traversals are repeatable.
+         */
+        Product product;
+        Map<String, Product> products;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        boolean isTerminal() {
+            return product != null || products != null;
+        }
+
+        Collection<Product> values() {
+            return product != null ? Collections.singletonList(product) : products.values();
+        }
+
+        void add(Product added) {
+            if (products != null) {
+                products.put(added.getId(), added);
+            } else if (product == null || product.getId().equals(added.getId())) {
+                product = added;
+            } else {
+                products = new LinkedHashMap<>();
+                products.put(product.getId(), product);
+                products.put(added.getId(), added);
+                product = null;
+            }
+        }
+
+        /**
+         * @param removed
+         * @return true if the product was stored here
+         */
+        boolean remove(Product removed) {
+            if (product != null) {
+                if (!product.getId().equals(removed.getId()))
+                    return false;
+                product = null;
+                return true;
+            }
+            if (products == null || products.remove(removed.getId()) == null)
+                return false;
+            if (products.size() == 1) {
+                product = products.values().iterator().next();
+                products = null;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Callback for keys visited in lexicographic order.
+     */
+    interface Visitor {
+        /**
+         * @param key
+         * @param products products stored under the key
+         * @return false to stop the traversal
+         */
+        boolean visit(String key, Collection<Product> products);
+    }
+
+    private Node root = new Node("");
+
+    /**
+     * Binary search the child whose label starts with the given character.
+     *
+     * @param node
+     * @param c
+     * @return slot of the child, or -(insertion point) - 1 if there is none
+     */
+    private static int findChild(Node node, char c) {
+        int low = 0;
+        int high = node.childCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = node.children[mid].label.charAt(0);
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void addChild(Node node, int slot, Node child) {
+        if (node.childCount == node.children.length) {
+            node.children = Arrays.copyOf(node.children, Math.max(2, node.childCount * 2));
+        }
+        System.arraycopy(node.children, slot, node.children, slot + 1, node.childCount - slot);
+        node.children[slot] = child;
+        node.childCount++;
+    }
+
+    private static void removeChild(Node node, int slot) {
+        System.arraycopy(node.children, slot + 1, node.children, slot, node.childCount - slot - 1);
+        node.children[--node.childCount] = null;
+    }
+
+    /**
+     * @param label
+     * @param key
+     * @param offset
+     * @return length of the common prefix of label and key from offset
+     */
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Store a product under a key.
+     *
+     * @param key
+     * @param product
+     * @return true if the key was not in the trie before
+     */
+    public boolean insert(String key, Product product) {
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length()) {
+            int slot = findChild(node, key.charAt(i));
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(i));
+                addChild(node, -slot - 1, leaf);
+                node = leaf;
+                break;
+            }
+
+            Node child = node.children[slot];
+            int common = commonPrefix(child.label, key, i);
+            /**
+             * Key leaves the edge halfway - split the edge at that point
+             */
+            if (common < child.label.length()) {
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[] { child };
+                middle.childCount = 1;
+                node.children[slot] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+
+        boolean created = !node.isTerminal();
+        node.add(product);
+        return created;
+    }
+
+    /**
+     * Remove a product from a key. Emptied nodes are unlinked and
+     * single-child nodes merged again so the trie stays compact.
+     *
+     * @param key
+     * @param product
+     * @return true if the key has no products left and was removed
+     */
+    public boolean remove(String key, Product product) {
+        Node[] path = new Node[key.length() + 1];
+        int[] slots = new int[key.length() + 1];
+        int depth = 0;
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length()) {
+            int slot = findChild(node, key.charAt(i));
+            if (slot < 0)
+                return false;
+            Node child = node.children[slot];
+            if (commonPrefix(child.label, key, i) < child.label.length())
+                return false;
+            path[depth] = node;
+            slots[depth++] = slot;
+            node = child;
+            i += child.label.length();
+        }
+
+        if (!node.remove(product) || node.isTerminal())
+            return false;
+
+        if (depth == 0)
+            return true;
+
+        Node parent = path[depth - 1];
+        if (node.childCount == 0) {
+            removeChild(parent, slots[depth - 1]);
+            /**
+             * Parent may now be a pass-through node with a single child
+             */
+            if (depth > 1) {
+                compact(path[depth - 2], slots[depth - 2]);
+            }
+        } else {
+            compact(parent, slots[depth - 1]);
+        }
+        return true;
+    }
+
+    /**
+     * Merge a node holding no products into its only child.
+     *
+     * @param parent
+     * @param slot
+     */
+    private static void compact(Node parent, int slot) {
+        Node node = parent.children[slot];
+        if (node.isTerminal() || node.childCount != 1)
+            return;
+
+        Node child = node.children[0];
+        child.label = node.label + child.label;
+        parent.children[slot] = child;
+    }
+
+    /**
+     * Get the products stored under an exact key.
+     *
+     * @param key
+     * @return products, or null if the key is not in the trie
+     */
+    public Collection<Product> get(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int slot = findChild(node, key.charAt(i));
+            if (slot < 0)
+                return null;
+            node = node.children[slot];
+            if (commonPrefix(node.label, key, i) < node.label.length())
+                return null;
+            i += node.label.length();
+        }
+        return node.isTerminal() ? node.values() : null;
+    }
+
+    /**
+     * Visit all keys starting with a prefix in lexicographic order.
+     * Finding the prefix costs O(prefix length), each visited key after
+     * that costs its own length, so stopping early keeps lookups cheap.
+     *
+     * @param prefix
+     * @param visitor
+     */
+    public void visit(String prefix, Visitor visitor) {
+        Node node = root;
+        StringBuilder key = new StringBuilder(prefix.length() + 16);
+        int i = 0;
+
+        while (i < prefix.length()) {
+            int slot = findChild(node, prefix.charAt(i));
+            if (slot < 0)
+                return;
+            node = node.children[slot];
+            int common = commonPrefix(node.label, prefix, i);
+            /**
+             * Prefix ends inside this edge - whole subtree matches
+             */
+            if (i + common == prefix.length())
+                break;
+            if (common < node.label.length())
+                return;
+            key.append(node.label);
+            i += common;
+        }
+
+        visitRec(node, key, visitor);
+    }
+
+    /**
+     * Depth-first traversal, keys ending at a node come before its children.
+     *
+     * @param node
+     * @param key key up to the node's parent
+     * @param visitor
+     * @return false if the visitor asked to stop
+     */
+    private static boolean visitRec(Node node, StringBuilder key, Visitor visitor) {
+        int length = key.length();
+        key.append(node.label);
+
+        if (node.isTerminal() && !visitor.visit(key.toString(), node.values()))
+            return false;
+        for (int i = 0; i < node.childCount; i++) {
+            if (!visitRec(node.children[i], key, visitor))
+                return false;
+        }
+
+        key.setLength(length);
+        return true;
+    }
+}
@@ -2,11 +2,52 @@ package datastructure.tree;
 
 import models.Product;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 class ProductNode {
     Product product;
     ProductNode left, right;
+    int height;
+    /**
+     * Aggregates over the subtree rooted at this node,
+     * kept up to date on every insert, delete and stock or price change
+     */
+    Product minPriceProduct, maxPriceProduct;
+    long totalStock;
+    double totalValue;
+
+    private static final VarHandle TOTAL_STOCK;
+    private static final VarHandle TOTAL_VALUE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOTAL_STOCK = lookup.findVarHandle(ProductNode.class, "totalStock", long.class);
+            TOTAL_VALUE = lookup.findVarHandle(ProductNode.class, "totalValue", double.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     public ProductNode(Product product) {
         this.product = product;
+        this.height = 1;
+        this.minPriceProduct = product;
+        this.maxPriceProduct = product;
+        this.totalStock = product.getStock();
+        this.totalValue = product.getPrice() * product.getStock();
+    }
+
+    /**
+     * Atomically add a stock change to the aggregates, so concurrent
+     * reservations on the same path do not lose each other's updates.
+     *
+     * @param delta units added, negative if taken
+     * @param price price of the changed product
+     */
+    void addStock(int delta, double price) {
+        TOTAL_STOCK.getAndAdd(this, (long) delta);
+        TOTAL_VALUE.getAndAdd(this, price * delta);
     }
 }
@@ -0,0 +1,291 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Secondary index of products ordered by price, as an AVL tree.
+ * Products with the same price are ordered by ID, so duplicate prices
+ * are kept apart and every product has exactly one position.
+ * Every node counts the products in its subtree, so ranks and
+ * k-th cheapest lookups run in O(log n).
+ */
+class ProductPriceTree {
+    private PriceNode root;
+    private int size;
+
+    /**
+     * Compare two products by price, then by ID.
+     *
+     * @param price
+     * @param id
+     * @param product
+     * @return negative, zero or positive like Comparator.compare
+     */
+    private static int compare(double price, String id, Product product) {
+        int cmp = Double.compare(price, product.getPrice());
+        return cmp != 0 ? cmp : id.compareTo(product.getId());
+    }
+
+    private static int height(PriceNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(PriceNode node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(PriceNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static PriceNode rotateRight(PriceNode node) {
+        PriceNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static PriceNode rotateLeft(PriceNode node) {
+        PriceNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static PriceNode rebalance(PriceNode node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Insert a product at the position of its current price.
+     *
+     * @param product
+     */
+    public void insert(Product product) {
+        root = insertRec(root, product);
+    }
+
+    /**
+     * Recursive helper to insert a product. Recursion depth is bounded
+     * by the height of the balanced tree.
+     *
+     * @param node
+     * @param product
+     * @return Updated node
+     */
+    private PriceNode insertRec(PriceNode node, Product product) {
+        if (node == null) {
+            size++;
+            return new PriceNode(product);
+        }
+
+        int cmp = compare(product.getPrice(), product.getId(), node.product);
+        if (cmp < 0) {
+            node.left = insertRec(node.left, product);
+        } else if (cmp > 0) {
+            node.right = insertRec(node.right, product);
+        } else {
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Build an empty tree in O(n) from distinct products
+     * already sorted by price, then by ID.
+     *
+     * @param products
+     */
+    public void bulkLoad(Product[] products) {
+        if (size != 0) {
+            throw new IllegalStateException("Bulk load hanya untuk index kosong");
+        }
+
+        root = build(products, 0, products.length - 1);
+        size = products.length;
+    }
+
+    private static PriceNode build(Product[] products, int from, int to) {
+        if (from > to)
+            return null;
+
+        int mid = (from + to) >>> 1;
+        PriceNode node = new PriceNode(products[mid]);
+        node.left = build(products, from, mid - 1);
+        node.right = build(products, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Remove a product. The price must be the one it was inserted with.
+     *
+     * @param product
+     */
+    public void delete(Product product) {
+        root = deleteRec(root, product.getPrice(), product.getId());
+    }
+
+    private PriceNode deleteRec(PriceNode node, double price, String id) {
+        if (node == null)
+            return null;
+
+        int cmp = compare(price, id, node.product);
+        if (cmp < 0) {
+            node.left = deleteRec(node.left, price, id);
+        } else if (cmp > 0) {
+            node.right = deleteRec(node.right, price, id);
+        } else {
+            /**
+             * Node is found - unlink it, or replace it by its inorder successor
+             */
+            if (node.left == null || node.right == null) {
+                size--;
+                return node.left != null ? node.left : node.right;
+            }
+            PriceNode successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.product = successor.product;
+            node.right = deleteRec(node.right, successor.product.getPrice(), successor.product.getId());
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Search for products within a price range in O(log n + k).
+     *
+     * @param minPrice
+     * @param maxPrice
+     * @return List of products within the price range, cheapest first
+     */
+    public List<Product> searchInRange(double minPrice, double maxPrice) {
+        List<Product> result = new ArrayList<>();
+        searchInRangeRec(root, minPrice, maxPrice, result);
+        return result;
+    }
+
+    /**
+     * Recursive helper that only descends into subtrees
+     * that can hold prices inside the range.
+     *
+     * @param node
+     * @param minPrice
+     * @param maxPrice
+     * @param result
+     */
+    private void searchInRangeRec(PriceNode node, double minPrice, double maxPrice, List<Product> result) {
+        if (node == null)
+            return;
+
+        /**
+         * Compare the way the tree is ordered, so NaN and -0.0 prices
+         * are pruned consistently with where they were inserted
+         */
+        double price = node.product.getPrice();
+        boolean aboveMin = Double.compare(price, minPrice) >= 0;
+        boolean belowMax = Double.compare(price, maxPrice) <= 0;
+        if (aboveMin) {
+            searchInRangeRec(node.left, minPrice, maxPrice, result);
+        }
+        if (aboveMin && belowMax) {
+            result.add(node.product);
+        }
+        if (belowMax) {
+            searchInRangeRec(node.right, minPrice, maxPrice, result);
+        }
+    }
+
+    /**
+     * Count products cheaper than a price, or not more expensive if inclusive.
+     *
+     * @param price
+     * @param inclusive
+     * @return number of products
+     */
+    private int countBelow(double price, boolean inclusive) {
+        int count = 0;
+        PriceNode node = root;
+        while (node != null) {
+            int cmp = Double.compare(node.product.getPrice(), price);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param price
+     * @return number of products strictly cheaper than the price
+     */
+    public int rank(double price) {
+        return countBelow(price, false);
+    }
+
+    /**
+     * @param minPrice
+     * @param maxPrice
+     * @return number of products priced within the range, inclusive
+     */
+    public int countInRange(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice)
+            return 0;
+        return countBelow(maxPrice, true) - countBelow(minPrice, false);
+    }
+
+    /**
+     * Find the k-th cheapest product.
+     *
+     * @param k zero-based rank
+     * @return Product at that rank, or null if k is out of range
+     */
+    public Product select(int k) {
+        if (k < 0 || k >= size)
+            return null;
+
+        PriceNode node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node.product;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
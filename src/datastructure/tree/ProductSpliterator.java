@@ -0,0 +1,125 @@
+package datastructure.tree;
+
+import models.Product;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a ProductBST in ID order.
+ * Pending work is a stack of nodes, each to be visited followed by its
+ * right subtree. A split hands the lowest pending node and everything
+ * before it to the prefix and keeps its right subtree, which halves a
+ * balanced tree without copying it.
+ */
+class ProductSpliterator implements Spliterator<Product> {
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    private ProductBST tree;
+    private ProductNode[] stack;
+    private int depth;
+    /**
+     * Node at the bottom of the stack whose right subtree belongs to
+     * another spliterator, or null if the bottom right subtree is ours
+     */
+    private ProductNode last;
+    private long estimatedSize;
+    private int expectedModCount;
+
+    ProductSpliterator(ProductBST tree, ProductNode root, long size) {
+        this(tree, new ProductNode[ProductBST.MAX_HEIGHT], 0, null, size, tree.modCount);
+        pushLeft(root);
+    }
+
+    private ProductSpliterator(ProductBST tree, ProductNode[] stack, int depth, ProductNode last,
+                               long estimatedSize, int expectedModCount) {
+        this.tree = tree;
+        this.stack = stack;
+        this.depth = depth;
+        this.last = last;
+        this.estimatedSize = estimatedSize;
+        this.expectedModCount = expectedModCount;
+    }
+
+    private void pushLeft(ProductNode node) {
+        while (node != null) {
+            stack[depth++] = node;
+            node = node.left;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Product> action) {
+        if (depth == 0)
+            return false;
+        if (tree.modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+
+        ProductNode node = stack[--depth];
+        if (node != last) {
+            pushLeft(node.right);
+        }
+        if (estimatedSize > 0) {
+            estimatedSize--;
+        }
+        action.accept(node.product);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Product> action) {
+        while (tryAdvance(action)) {
+        }
+    }
+
+    @Override
+    public Spliterator<Product> trySplit() {
+        /**
+         * Pivot is the lowest pending node whose right subtree we still own
+         */
+        int pivotIndex = last == null ? 0 : 1;
+        if (depth <= pivotIndex)
+            return null;
+
+        ProductNode pivot = stack[pivotIndex];
+        /**
+         * Nothing would be left on our side
+         */
+        if (pivot.right == null && pivotIndex == 0)
+            return null;
+
+        ProductNode[] prefixStack = new ProductNode[stack.length];
+        int prefixDepth = depth - pivotIndex;
+        System.arraycopy(stack, pivotIndex, prefixStack, 0, prefixDepth);
+        long prefixSize = estimatedSize >>> 1;
+        ProductSpliterator prefix = new ProductSpliterator(tree, prefixStack, prefixDepth, pivot,
+                prefixSize, expectedModCount);
+
+        /**
+         * Keep the entries below the pivot and the pivot's right subtree
+         */
+        Arrays.fill(stack, pivotIndex, depth, null);
+        depth = pivotIndex;
+        pushLeft(pivot.right);
+        estimatedSize -= prefixSize;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SORTED | DISTINCT | NONNULL;
+    }
+
+    @Override
+    public Comparator<? super Product> getComparator() {
+        return BY_ID;
+    }
+}
@@ -27,6 +27,18 @@ public class Order {
         this.orderTime = LocalDateTime.now();
     }
 
+    public Order(String orderId, String customerName, String productId, int quantity,
+                 double totalPrice, String shippingCity, String status, LocalDateTime orderTime) {
+        this.orderId = orderId;
+        this.customerName = customerName;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.shippingCity = shippingCity;
+        this.orderTime = orderTime;
+    }
+
     public String getOrderId() {
         return orderId;
     }
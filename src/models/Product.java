@@ -1,5 +1,7 @@
 package models;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.text.NumberFormat;
 import java.util.Locale;
 
@@ -8,7 +10,21 @@ public class Product {
     private String name;
     private String category;
     private double price;
-    private int stock;
+    /**
+     * Stock is changed with compare-and-set so concurrent orders
+     * cannot reserve the same units twice
+     */
+    private volatile int stock;
+
+    private static final VarHandle STOCK;
+
+    static {
+        try {
+            STOCK = MethodHandles.lookup().findVarHandle(Product.class, "stock", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     public Product(String id, String name, String category, double price, int stock) {
         this.id = id;
@@ -38,10 +54,56 @@ public class Product {
         return stock;
     }
 
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
     public void setStock(int stock) {
         this.stock = stock;
     }
 
+    /**
+     * Atomically set the stock.
+     *
+     * @param stock
+     * @return stock before the change
+     */
+    public int getAndSetStock(int stock) {
+        return (int) STOCK.getAndSet(this, stock);
+    }
+
+    /**
+     * Atomically take units from stock if enough are available.
+     *
+     * @param quantity
+     * @return true if reserved, false if quantity is not positive or stock is insufficient
+     */
+    public boolean tryReserveStock(int quantity) {
+        if (quantity <= 0)
+            return false;
+
+        int current;
+        do {
+            current = stock;
+            if (current < quantity)
+                return false;
+        } while (!STOCK.compareAndSet(this, current, current - quantity));
+        return true;
+    }
+
+    /**
+     * Atomically return units to stock.
+     *
+     * @param quantity
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public void releaseStock(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Jumlah stok yang dikembalikan harus lebih dari 0");
+        }
+        STOCK.getAndAdd(this, quantity);
+    }
+
     public void displayInfo() {
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
         System.out.println("┌─ DETAIL PRODUK");
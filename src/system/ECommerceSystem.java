@@ -2,12 +2,18 @@ package system;
 
 import datastructure.graph.ShippingGraph;
 import datastructure.hash.OrderHashTable;
+import datastructure.hash.OrderTableSnapshot;
+import datastructure.tree.CategoryFacet;
+import datastructure.tree.DiskProductCatalog;
 import datastructure.tree.ProductBST;
 import models.Order;
 import models.Product;
 import utils.CSVLoader;
 
+import java.io.IOException;
 import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 public class ECommerceSystem {
@@ -74,8 +80,7 @@ public class ECommerceSystem {
      */
     public void searchProductsInRange(double minPrice, double maxPrice) {
         /**
-         * Search products in BST within price range
-         * Search is done depth-first
+         * Search products within price range through the catalog's price index
          */
         List<Product> products = productTree.searchInRange(minPrice, maxPrice);
 
@@ -117,7 +122,7 @@ public class ECommerceSystem {
          */
         Product product = productTree.search(id);
         if (product != null) {
-            product.setStock(newStock);
+            productTree.updateStock(id, newStock);
             System.out.println("Stok produk berhasil diupdate!");
             product.displayInfo();
         } else {
@@ -139,15 +144,7 @@ public class ECommerceSystem {
     }
 
     public void displayAllProducts() {
-        List<Product> products = new ArrayList<>();
-        /**
-         * In-order traversal to get products sorted by price
-         * Search is done depth-first.
-         * Assign to products variable as list
-         */
-        productTree.inOrderTraversal(products);
-
-        if (products.isEmpty()) {
+        if (productTree.getSize() == 0) {
             System.out.println("\nBelum ada produk.");
             return;
         }
@@ -162,13 +159,55 @@ public class ECommerceSystem {
         System.out.printf("%-8s %-30s %-20s %15s %8s%n", "ID", "NAMA", "KATEGORI", "HARGA", "STOK");
         System.out.println("─".repeat(80));
 
+        /**
+         * Iterate the BST in ID order without copying the catalog
+         */
+        for (Product p : productTree) {
+            System.out.printf("%-8s %-30s %-20s %15s %8d%n",
+                    p.getId(), p.getName(), p.getCategory(),
+                    currencyFormat.format(p.getPrice()), p.getStock());
+        }
+        System.out.println("═".repeat(80));
+        System.out.println("Total: " + productTree.getSize() + " produk");
+    }
+
+    /**
+     * Display one page of the catalog in ID order.
+     * 
+     * @param afterId last ID of the previous page, or null for the first page
+     * @param limit
+     * @return last ID shown if more products follow, otherwise null
+     */
+    public String displayProductPage(String afterId, int limit) {
+        /**
+         * Fetch one extra product to know whether another page follows
+         */
+        List<Product> products = productTree.getProducts(afterId, limit + 1);
+        boolean hasMore = products.size() > limit;
+        if (hasMore) {
+            products = products.subList(0, limit);
+        }
+
+        if (products.isEmpty()) {
+            System.out.println("\nBelum ada produk.");
+            return null;
+        }
+
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        System.out.println("\n" + "═".repeat(80));
+        System.out.println("KATALOG PRODUK (TERURUT BY ID)");
+        System.out.println("═".repeat(80));
+        System.out.printf("%-8s %-30s %-20s %15s %8s%n", "ID", "NAMA", "KATEGORI", "HARGA", "STOK");
+        System.out.println("─".repeat(80));
+
         for (Product p : products) {
             System.out.printf("%-8s %-30s %-20s %15s %8d%n",
                     p.getId(), p.getName(), p.getCategory(),
                     currencyFormat.format(p.getPrice()), p.getStock());
         }
         System.out.println("═".repeat(80));
-        System.out.println("Total: " + products.size() + " produk");
+        System.out.println("Ditampilkan: " + products.size() + " dari " + productTree.getSize() + " produk");
+        return hasMore ? products.get(products.size() - 1).getId() : null;
     }
 
     public void displayPriceExtremes() {
@@ -197,6 +236,175 @@ public class ECommerceSystem {
         System.out.println("═".repeat(60));
     }
 
+    /**
+     * Show the k-th cheapest product within a price range
+     * and where the range sits in the whole catalog.
+     * 
+     * @param minPrice
+     * @param maxPrice
+     * @param k 1-based rank within the range
+     */
+    public void findKthCheapest(double minPrice, double maxPrice, int k) {
+        int count = productTree.countInPriceRange(minPrice, maxPrice);
+        Product product = productTree.selectInPriceRange(minPrice, maxPrice, k - 1);
+
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        System.out.println("\n" + "═".repeat(60));
+        System.out.println("PERINGKAT HARGA: " + currencyFormat.format(minPrice) +
+                " - " + currencyFormat.format(maxPrice));
+        System.out.println("═".repeat(60));
+        System.out.println("├─ Produk dalam Range      : " + count);
+        System.out.println("└─ Lebih Murah dari Range  : " + productTree.rankByPrice(minPrice));
+
+        if (product == null) {
+            System.out.println("\nTidak ada produk termurah ke-" + k + " dalam range tersebut.");
+            return;
+        }
+
+        System.out.println("\nTERMURAH KE-" + k + ":");
+        product.displayInfo();
+        System.out.println("═".repeat(60));
+    }
+
+    /**
+     * Search products of a category within a price range.
+     * 
+     * @param category
+     * @param minPrice
+     * @param maxPrice
+     */
+    public void searchProductsByCategory(String category, double minPrice, double maxPrice) {
+        /**
+         * Intersect category and price range through the category index
+         */
+        List<Product> products = productTree.searchByCategory(category, minPrice, maxPrice);
+
+        if (products.isEmpty()) {
+            System.out.println("\nTidak ada produk " + category + " dalam range harga tersebut.");
+            return;
+        }
+
+        /**
+         * Display formatting
+         */
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        System.out.println("\n" + "═".repeat(80));
+        System.out.println("PRODUK " + category.toUpperCase() + ": " + currencyFormat.format(minPrice) +
+                " - " + currencyFormat.format(maxPrice));
+        System.out.println("═".repeat(80));
+        System.out.printf("%-8s %-30s %-20s %15s %8s%n", "ID", "NAMA", "KATEGORI", "HARGA", "STOK");
+        System.out.println("─".repeat(80));
+
+        for (Product p : products) {
+            System.out.printf("%-8s %-30s %-20s %15s %8d%n",
+                    p.getId(), p.getName(), p.getCategory(),
+                    currencyFormat.format(p.getPrice()), p.getStock());
+        }
+        System.out.println("═".repeat(80));
+        System.out.println("Total: " + products.size() + " produk");
+    }
+
+    /**
+     * Search products by name, tolerating typos.
+     * 
+     * @param query
+     */
+    public void searchProductsByName(String query) {
+        long startTime = System.nanoTime();
+        List<Product> products = productTree.searchByName(query, 10);
+        long endTime = System.nanoTime();
+
+        displayNameResults("HASIL PENCARIAN: " + query, products, endTime - startTime);
+    }
+
+    /**
+     * Suggest products for a partially typed name.
+     * 
+     * @param prefix
+     */
+    public void autocompleteProductName(String prefix) {
+        long startTime = System.nanoTime();
+        List<Product> products = productTree.autocomplete(prefix, 10);
+        long endTime = System.nanoTime();
+
+        displayNameResults("SARAN UNTUK: " + prefix, products, endTime - startTime);
+    }
+
+    private void displayNameResults(String title, List<Product> products, long elapsedNanos) {
+        if (products.isEmpty()) {
+            System.out.println("\nTidak ada produk yang cocok.");
+            return;
+        }
+
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        System.out.println("\n" + "═".repeat(80));
+        System.out.println(title);
+        System.out.println("═".repeat(80));
+        System.out.printf("%-8s %-30s %-20s %15s %8s%n", "ID", "NAMA", "KATEGORI", "HARGA", "STOK");
+        System.out.println("─".repeat(80));
+
+        for (Product p : products) {
+            System.out.printf("%-8s %-30s %-20s %15s %8d%n",
+                    p.getId(), p.getName(), p.getCategory(),
+                    currencyFormat.format(p.getPrice()), p.getStock());
+        }
+        System.out.println("═".repeat(80));
+        System.out.println("Total: " + products.size() + " produk");
+        System.out.println("⏱ Waktu pencarian: " + elapsedNanos + " ns");
+    }
+
+    /**
+     * Write the catalog into a disk-backed B+tree file.
+     * An existing catalog file is updated to match the current catalog,
+     * including prices, stock and deleted products.
+     * 
+     * @param path
+     */
+    public void exportCatalog(String path) {
+        long startTime = System.nanoTime();
+        try (DiskProductCatalog catalog = new DiskProductCatalog(path)) {
+            catalog.replaceWith(productTree);
+            long endTime = System.nanoTime();
+
+            System.out.println("\nKatalog berhasil diekspor ke " + path);
+            System.out.println("├─ Total Produk : " + catalog.getSize());
+            System.out.println("├─ Tinggi Tree  : " + catalog.getHeight());
+            System.out.println("├─ Ukuran File  : " + catalog.getFileBytes() / 1024 + " KB");
+            System.out.println("└─ Waktu        : " + (endTime - startTime) / 1_000_000 + " ms");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Gagal mengekspor katalog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Display product count, stock and inventory value per category.
+     */
+    public void displayCategoryFacets() {
+        /**
+         * Facet counts are maintained by the category index, no traversal needed
+         */
+        List<CategoryFacet> facets = productTree.getCategoryFacets();
+
+        if (facets.isEmpty()) {
+            System.out.println("\nTidak ada produk.");
+            return;
+        }
+
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        System.out.println("\n" + "═".repeat(75));
+        System.out.println("RINGKASAN PER KATEGORI");
+        System.out.println("═".repeat(75));
+        System.out.printf("%-20s %10s %12s %25s%n", "KATEGORI", "PRODUK", "STOK", "NILAI INVENTORI");
+        System.out.println("─".repeat(75));
+
+        for (CategoryFacet facet : facets) {
+            System.out.printf("%-20s %10d %12d %25s%n",
+                    facet.getCategory(), facet.getProductCount(), facet.getTotalStock(),
+                    currencyFormat.format(facet.getInventoryValue()));
+        }
+        System.out.println("═".repeat(75));
+    }
+
     /**
      * Create a new order.
      * 
@@ -216,8 +424,15 @@ public class ECommerceSystem {
             System.out.println("Produk tidak ditemukan!");
             return;
         }
+        if (quantity <= 0) {
+            System.out.println("Jumlah pesanan harus lebih dari 0!");
+            return;
+        }
 
-        if (product.getStock() < quantity) {
+        /**
+         * Check and take the stock in one atomic step
+         */
+        if (!productTree.tryReserveStock(productId, quantity)) {
             System.out.println("Stok tidak mencukupi! Stok tersedia: " + product.getStock());
             return;
         }
@@ -234,11 +449,6 @@ public class ECommerceSystem {
         Order order = new Order(orderId, customerName, productId, quantity, totalPrice, shippingCity);
         orderTable.put(orderId, order);
 
-        /**
-         * Update product stock
-         */
-        product.setStock(product.getStock() - quantity);
-
         System.out.println("\nPesanan berhasil dibuat!");
         order.displayInfo();
     }
@@ -278,11 +488,11 @@ public class ECommerceSystem {
         Order order = orderTable.get(orderId);
         if (order != null) {
             /**
-             * Update order status
+             * Update order status through the table to keep the status index in sync
              */
-            order.setStatus(status);
+            orderTable.updateStatus(orderId, status);
             System.out.println("Status pesanan berhasil diupdate!");
-            order.displayInfo();
+            orderTable.get(orderId).displayInfo();
         } else {
             System.out.println("Pesanan tidak ditemukan!");
         }
@@ -302,9 +512,8 @@ public class ECommerceSystem {
             /**
              * Restore product stock
              */
-            Product product = productTree.search(order.getProductId());
-            if (product != null) {
-                product.setStock(product.getStock() + order.getQuantity());
+            if (order.getQuantity() > 0) {
+                productTree.releaseStock(order.getProductId(), order.getQuantity());
             }
 
             /**
@@ -322,12 +531,87 @@ public class ECommerceSystem {
      */
     public void displayAllOrders() {
         /**
-         * Get all orders from hash table as list
+         * Read from a snapshot so the listing is consistent with its total
+         */
+        try (OrderTableSnapshot snapshot = orderTable.snapshot()) {
+            if (snapshot.getSize() == 0) {
+                System.out.println("\nBelum ada pesanan.");
+                return;
+            }
+
+            /**
+             * Display formatting
+             */
+            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+            System.out.println("\n" + "═".repeat(90));
+            System.out.println("DAFTAR SEMUA PESANAN");
+            System.out.println("═".repeat(90));
+            System.out.printf("%-10s %-20s %-10s %-8s %15s %-12s%n",
+                    "ORDER ID", "CUSTOMER", "PRODUK", "QTY", "TOTAL", "STATUS");
+            System.out.println("─".repeat(90));
+
+            /**
+             * Iterate orders in place, without copying them into a list
+             */
+            for (Order o : snapshot) {
+                System.out.printf("%-10s %-20s %-10s %-8d %15s %-12s%n",
+                        o.getOrderId(), o.getCustomerName(), o.getProductId(),
+                        o.getQuantity(), currencyFormat.format(o.getTotalPrice()), o.getStatus());
+            }
+            System.out.println("═".repeat(90));
+            System.out.println("Total: " + snapshot.getSize() + " pesanan");
+        }
+    }
+
+    /**
+     * Display orders filtered by status.
+     * 
+     * @param status
+     */
+    public void displayOrdersByStatus(String status) {
+        /**
+         * Get orders with the given status from the status index
          */
-        List<Order> orders = orderTable.getAllOrders();
+        List<Order> filteredOrders = orderTable.getOrdersByStatus(status);
+
+        if (filteredOrders.isEmpty()) {
+            System.out.println("\nTidak ada pesanan dengan status " + status);
+            return;
+        }
+
+        /**
+         * Display formatting
+         */
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        System.out.println("\n" + "═".repeat(90));
+        System.out.println("PESANAN STATUS: " + status);
+        System.out.println("═".repeat(90));
+        System.out.printf("%-10s %-20s %-10s %-8s %15s %-15s%n",
+                "ORDER ID", "CUSTOMER", "PRODUK", "QTY", "TOTAL", "TUJUAN");
+        System.out.println("─".repeat(90));
+
+        for (Order o : filteredOrders) {
+            System.out.printf("%-10s %-20s %-10s %-8d %15s %-15s%n",
+                    o.getOrderId(), o.getCustomerName(), o.getProductId(),
+                    o.getQuantity(), currencyFormat.format(o.getTotalPrice()), o.getShippingCity());
+        }
+        System.out.println("═".repeat(90));
+        System.out.println("Total: " + filteredOrders.size() + " pesanan");
+    }
+
+    /**
+     * Display orders placed by a customer.
+     *
+     * @param customerName
+     */
+    public void displayOrdersByCustomer(String customerName) {
+        /**
+         * Get orders of the customer from the customer index
+         */
+        List<Order> orders = orderTable.getOrdersByCustomer(customerName);
 
         if (orders.isEmpty()) {
-            System.out.println("\nBelum ada pesanan.");
+            System.out.println("\nTidak ada pesanan untuk customer " + customerName);
             return;
         }
 
@@ -336,41 +620,78 @@ public class ECommerceSystem {
          */
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
         System.out.println("\n" + "═".repeat(90));
-        System.out.println("DAFTAR SEMUA PESANAN");
+        System.out.println("PESANAN CUSTOMER: " + customerName);
         System.out.println("═".repeat(90));
-        System.out.printf("%-10s %-20s %-10s %-8s %15s %-12s%n",
-                "ORDER ID", "CUSTOMER", "PRODUK", "QTY", "TOTAL", "STATUS");
+        System.out.printf("%-10s %-10s %-8s %15s %-12s %-15s%n",
+                "ORDER ID", "PRODUK", "QTY", "TOTAL", "STATUS", "TUJUAN");
         System.out.println("─".repeat(90));
 
         for (Order o : orders) {
-            System.out.printf("%-10s %-20s %-10s %-8d %15s %-12s%n",
-                    o.getOrderId(), o.getCustomerName(), o.getProductId(),
-                    o.getQuantity(), currencyFormat.format(o.getTotalPrice()), o.getStatus());
+            System.out.printf("%-10s %-10s %-8d %15s %-12s %-15s%n",
+                    o.getOrderId(), o.getProductId(), o.getQuantity(),
+                    currencyFormat.format(o.getTotalPrice()), o.getStatus(), o.getShippingCity());
         }
         System.out.println("═".repeat(90));
         System.out.println("Total: " + orders.size() + " pesanan");
     }
 
     /**
-     * Display orders filtered by status.
-     * 
-     * @param status
+     * Display orders containing a product, e.g. for a product recall.
+     *
+     * @param productId
      */
-    public void displayOrdersByStatus(String status) {
-        List<Order> allOrders = orderTable.getAllOrders();
-        List<Order> filteredOrders = new ArrayList<>();
+    public void displayOrdersByProduct(String productId) {
+        /**
+         * Get orders of the product from the product index
+         */
+        List<Order> orders = orderTable.getOrdersByProduct(productId);
+
+        if (orders.isEmpty()) {
+            System.out.println("\nTidak ada pesanan untuk produk " + productId);
+            return;
+        }
 
         /**
-         * Filter orders by status
+         * Display formatting
          */
-        for (Order order : allOrders) {
-            if (order.getStatus().equals(status)) {
-                filteredOrders.add(order);
-            }
+        System.out.println("\n" + "═".repeat(90));
+        System.out.println("PESANAN PRODUK: " + productId);
+        System.out.println("═".repeat(90));
+        System.out.printf("%-10s %-20s %-8s %-12s %-15s%n",
+                "ORDER ID", "CUSTOMER", "QTY", "STATUS", "TUJUAN");
+        System.out.println("─".repeat(90));
+
+        int totalQuantity = 0;
+        for (Order o : orders) {
+            System.out.printf("%-10s %-20s %-8d %-12s %-15s%n",
+                    o.getOrderId(), o.getCustomerName(), o.getQuantity(),
+                    o.getStatus(), o.getShippingCity());
+            totalQuantity += o.getQuantity();
         }
+        System.out.println("═".repeat(90));
+        System.out.println("Total: " + orders.size() + " pesanan, " + totalQuantity + " unit");
+    }
 
-        if (filteredOrders.isEmpty()) {
-            System.out.println("\nTidak ada pesanan dengan status " + status);
+    /**
+     * Display orders placed within the last given number of hours.
+     *
+     * @param hours
+     */
+    public void displayRecentOrders(int hours) {
+        if (hours <= 0) {
+            System.out.println("Rentang waktu harus lebih dari 0 jam!");
+            return;
+        }
+
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusHours(hours);
+        /**
+         * Stream orders in the time range from the time index, oldest first
+         */
+        Iterator<Order> cursor = orderTable.ordersBetweenCursor(from, to.plusNanos(1));
+
+        if (!cursor.hasNext()) {
+            System.out.println("\nTidak ada pesanan dalam " + hours + " jam terakhir.");
             return;
         }
 
@@ -378,20 +699,24 @@ public class ECommerceSystem {
          * Display formatting
          */
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
         System.out.println("\n" + "═".repeat(90));
-        System.out.println("PESANAN STATUS: " + status);
+        System.out.println("PESANAN " + hours + " JAM TERAKHIR");
         System.out.println("═".repeat(90));
-        System.out.printf("%-10s %-20s %-10s %-8s %15s %-15s%n",
-                "ORDER ID", "CUSTOMER", "PRODUK", "QTY", "TOTAL", "TUJUAN");
+        System.out.printf("%-18s %-10s %-20s %-10s %15s %-12s%n",
+                "WAKTU", "ORDER ID", "CUSTOMER", "PRODUK", "TOTAL", "STATUS");
         System.out.println("─".repeat(90));
 
-        for (Order o : filteredOrders) {
-            System.out.printf("%-10s %-20s %-10s %-8d %15s %-15s%n",
-                    o.getOrderId(), o.getCustomerName(), o.getProductId(),
-                    o.getQuantity(), currencyFormat.format(o.getTotalPrice()), o.getShippingCity());
+        int count = 0;
+        while (cursor.hasNext()) {
+            Order o = cursor.next();
+            System.out.printf("%-18s %-10s %-20s %-10s %15s %-12s%n",
+                    o.getOrderTime().format(formatter), o.getOrderId(), o.getCustomerName(),
+                    o.getProductId(), currencyFormat.format(o.getTotalPrice()), o.getStatus());
+            count++;
         }
         System.out.println("═".repeat(90));
-        System.out.println("Total: " + filteredOrders.size() + " pesanan");
+        System.out.println("Total: " + count + " pesanan");
     }
 
     /**
@@ -436,8 +761,7 @@ public class ECommerceSystem {
         /**
          * Calculate total distance
          */
-        Map<String, Integer> distances = shippingGraph.dijkstra(from);
-        int totalDistance = distances.get(to);
+        int totalDistance = shippingGraph.getDistance(from, to);
 
         System.out.println("\n" + "═".repeat(60));
         System.out.println("RUTE PENGIRIMAN TERDEKAT");
@@ -504,26 +828,17 @@ public class ECommerceSystem {
      * @param origin
      */
     public void simulateMultipleShipments(String origin) {
-        List<Order> pendingOrders = new ArrayList<>();
         /**
-         * Collect all orders with status "PROCESSING" or "PENDING"
+         * Collect all orders with status "PROCESSING" or "PENDING" from the status index
          */
-        for (Order order : orderTable.getAllOrders()) {
-            if (order.getStatus().equals("PROCESSING") || order.getStatus().equals("PENDING")) {
-                pendingOrders.add(order);
-            }
-        }
+        List<Order> pendingOrders = orderTable.getOrdersByStatus("PROCESSING");
+        pendingOrders.addAll(orderTable.getOrdersByStatus("PENDING"));
 
         if (pendingOrders.isEmpty()) {
             System.out.println("Tidak ada pesanan yang perlu dikirim.");
             return;
         }
 
-        /**
-         * Calculate shortest distances from origin to all destinations
-         */
-        Map<String, Integer> distances = shippingGraph.dijkstra(origin);
-
         System.out.println("\n" + "═".repeat(70));
         System.out.println("SIMULASI PENGIRIMAN DARI: " + origin);
         System.out.println("═".repeat(70));
@@ -538,11 +853,12 @@ public class ECommerceSystem {
         for (Order order : pendingOrders) {
             /**
              * For each order, get distance to shipping city
+             * from the origin's cached shortest path tree
              */
             String destination = order.getShippingCity();
-            Integer distance = distances.get(destination);
+            int distance = shippingGraph.getDistance(origin, destination);
 
-            if (distance != null && distance != Integer.MAX_VALUE) {
+            if (distance != Integer.MAX_VALUE) {
                 double cost = distance * 2000;
                 totalDistance += distance;
                 totalCost += cost;
@@ -567,42 +883,50 @@ public class ECommerceSystem {
      * Display system dashboard with key metrics.
      */
     public void displayDashboard() {
-        List<Product> products = new ArrayList<>();
-        /**
-         * In-order traversal to get all products
-         * Search is done depth-first.
-         * Assign to products variable as list
-         */
-        productTree.inOrderTraversal(products);
-        List<Order> orders = orderTable.getAllOrders();
-
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
 
         double totalRevenue = 0;
         int totalItemsSold = 0;
+        int totalOrders;
         Map<String, Integer> statusCount = new HashMap<>();
 
-        for (Order order : orders) {
-            totalRevenue += order.getTotalPrice();
-            totalItemsSold += order.getQuantity();
-            statusCount.put(order.getStatus(),
-                    statusCount.getOrDefault(order.getStatus(), 0) + 1);
+        /**
+         * Aggregate orders from a snapshot of the hash table,
+         * so every figure comes from the same point in time
+         */
+        try (OrderTableSnapshot snapshot = orderTable.snapshot()) {
+            for (Order order : snapshot) {
+                totalRevenue += order.getTotalPrice();
+                totalItemsSold += order.getQuantity();
+                statusCount.merge(order.getStatus(), 1, Integer::sum);
+            }
+            totalOrders = snapshot.getSize();
         }
 
-        int totalStock = 0;
-        double totalInventoryValue = 0;
-        for (Product product : products) {
-            totalStock += product.getStock();
-            totalInventoryValue += product.getPrice() * product.getStock();
-        }
+        /**
+         * Inventory totals come from the root aggregates of the BST.
+         * The catalog is only changed from this thread, so it cannot
+         * change while the report is read and needs no snapshot
+         */
+        long totalStock = productTree.getTotalStock();
+        double totalInventoryValue = productTree.getTotalInventoryValue();
 
         System.out.println("\n┌─ PRODUK");
-        System.out.println("├─ Total Produk       : " + products.size());
+        System.out.println("├─ Total Produk       : " + productTree.getSize());
         System.out.println("├─ Total Stok         : " + totalStock + " unit");
-        System.out.println("└─ Nilai Inventori    : " + currencyFormat.format(totalInventoryValue));
+        System.out.println("├─ Nilai Inventori    : " + currencyFormat.format(totalInventoryValue));
+        if (productTree.getSize() > 0) {
+            /**
+             * Order statistics on the price index, O(log n) each
+             */
+            System.out.println("├─ Median Harga       : " + currencyFormat.format(productTree.getMedianPrice()));
+            System.out.println("└─ Harga Persentil 90 : " + currencyFormat.format(productTree.getPricePercentile(90)));
+        } else {
+            System.out.println("└─ Median Harga       : -");
+        }
 
         System.out.println("\n┌─ PESANAN");
-        System.out.println("├─ Total Pesanan      : " + orders.size());
+        System.out.println("├─ Total Pesanan      : " + totalOrders);
         System.out.println("├─ Total Item Terjual : " + totalItemsSold);
         System.out.println("├─ Total Revenue      : " + currencyFormat.format(totalRevenue));
         System.out.println("└─ Status:");
@@ -610,8 +934,13 @@ public class ECommerceSystem {
             System.out.println("   ├─ " + entry.getKey() + ": " + entry.getValue());
         }
 
+        System.out.println();
+        orderTable.getStats().displayInfo();
+
         System.out.println("\n┌─ PENGIRIMAN");
         System.out.println("├─ Total Kota/Hub     : " + shippingGraph.getAllCities().size());
+        System.out.println("├─ Cache Rute         : " + shippingGraph.getPathCacheSize() + " asal, " +
+                shippingGraph.getPathCacheHits() + " hit / " + shippingGraph.getPathCacheMisses() + " miss");
         System.out.println("└─ Status             : " +
                 (shippingGraph.getAllCities().isEmpty() ? "Belum dikonfigurasi" : "Aktif"));
 
@@ -625,9 +954,10 @@ public class ECommerceSystem {
         System.out.println("\n Memuat data dari CSV...\n");
 
         List<String[]> productData = CSVLoader.loadCSV("src/data/products.csv");
+        List<Product> products = new ArrayList<>(productData.size());
         for (String[] row : productData) {
             /**
-             * Parse product data per row and insert into BST
+             * Parse product data per row, the BST is built in one go below
              */
             try {
                 /**
@@ -646,16 +976,25 @@ public class ECommerceSystem {
                 double price = Double.parseDouble(row[price_idx]);
                 int stock = Integer.parseInt(row[stock_idx]);
 
-                /**
-                 * Create product and insert into BST
-                 */
-                Product product = new Product(id, name, category, price, stock);
-                productTree.insert(product);
+                products.add(new Product(id, name, category, price, stock));
             } catch (Exception e) {
                 System.out.println("Error loading product: " + Arrays.toString(row));
             }
         }
 
+        /**
+         * Build the balanced BST bottom-up in O(n). With duplicate IDs fall back
+         * to inserting one by one, which keeps the first product of each ID.
+         */
+        try {
+            productTree.bulkLoad(products);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error loading product: " + e.getMessage());
+            for (Product product : products) {
+                productTree.insert(product);
+            }
+        }
+
         List<String[]> routeData = CSVLoader.loadCSV("src/data/routes.csv");
         Set<String> cities = new HashSet<>();
 
@@ -730,14 +1069,12 @@ public class ECommerceSystem {
                 /**
                  * Create order and insert into hash table if product exists and stock is sufficient
                  */
-                if (product != null && product.getStock() >= quantity) {
+                if (product != null && productTree.tryReserveStock(productId, quantity)) {
                     double totalPrice = product.getPrice() * quantity;
                     Order order = new Order(orderId, customerName, productId,
                             quantity, totalPrice, shippingCity);
                     order.setStatus(status);
                     orderTable.put(orderId, order);
-
-                    product.setStock(product.getStock() - quantity);
                 }
             } catch (Exception e) {
                 System.out.println("Error loading order: " + Arrays.toString(row));